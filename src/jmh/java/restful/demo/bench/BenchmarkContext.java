@@ -0,0 +1,47 @@
+package restful.demo.bench;
+
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import restful.demo.DemoApplication;
+import restful.demo.api.entity.Member;
+import restful.demo.api.repository.MemberRepository;
+
+import java.util.List;
+
+/**
+ * 내장 H2(메모리) 로 애플리케이션을 띄우고 회원 데이터를 넣어준다
+ * MySQL 설정(application.yml)은 커맨드라인 프로퍼티로 덮어쓴다
+ */
+public final class BenchmarkContext {
+
+    private static final int SEED_CHUNK = 1000;
+
+    private BenchmarkContext() {
+    }
+
+    public static ConfigurableApplicationContext start(int rows) {
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(DemoApplication.class)
+                .properties(
+                        "server.port=0",
+                        "spring.datasource.url=jdbc:h2:mem:bench;DB_CLOSE_DELAY=-1",
+                        "spring.datasource.driver-class-name=org.h2.Driver",
+                        "spring.datasource.username=sa",
+                        "spring.datasource.password=",
+                        "spring.jpa.hibernate.ddl-auto=create-drop",
+                        "spring.jpa.properties.hibernate.show_sql=false",
+                        "spring.jpa.properties.hibernate.format_sql=false",
+                        "logging.level.org.hibernate=warn",
+                        "logging.level.org.hibernate.SQL=warn",
+                        "logging.level.org.hibernate.type=warn")
+                .run();
+        seed(context.getBean(MemberRepository.class), rows);
+        return context;
+    }
+
+    private static void seed(MemberRepository memberRepository, int rows) {
+        List<Member> members = MemberFixtures.members(rows);
+        for (int from = 0; from < members.size(); from += SEED_CHUNK) {
+            memberRepository.saveAll(members.subList(from, Math.min(from + SEED_CHUNK, members.size())));
+        }
+    }
+}
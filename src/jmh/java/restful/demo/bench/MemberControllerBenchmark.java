@@ -0,0 +1,66 @@
+package restful.demo.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+/**
+ * 컨트롤러 -> 서비스 -> 레포지토리 -> 직렬화 까지 전체 경로 (MockMvc, 네트워크 제외)
+ */
+@State(Scope.Benchmark)
+public class MemberControllerBenchmark {
+
+    @Param({"1000"})
+    public int rows;
+
+    private ConfigurableApplicationContext context;
+    private MockMvc mockMvc;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start(rows);
+        mockMvc = MockMvcBuilders.webAppContextSetup((WebApplicationContext) context).build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public MvcResult findAll() throws Exception {
+        return perform(get("/"));
+    }
+
+    @Benchmark
+    public MvcResult memberOne() throws Exception {
+        return perform(get("/memberOne"));
+    }
+
+    @Benchmark
+    public MvcResult membersPage() throws Exception {
+        return perform(get("/members").param("size", "100"));
+    }
+
+    // 조회 엔드포인트는 비동기라 asyncDispatch 까지 해야 직렬화된 응답이 나온다
+    private MvcResult perform(MockHttpServletRequestBuilder request) throws Exception {
+        MvcResult started = mockMvc.perform(request).andReturn();
+        if (!started.getRequest().isAsyncStarted()) {
+            return started;
+        }
+        return mockMvc.perform(asyncDispatch(started)).andReturn();
+    }
+}
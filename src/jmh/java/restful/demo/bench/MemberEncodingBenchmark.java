@@ -0,0 +1,63 @@
+package restful.demo.bench;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import restful.demo.api.codec.MemberColumnarEncoder;
+import restful.demo.api.entity.Member;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * 응답 포맷별 인코딩 시간 비교 (JSON / Smile / CBOR / 컬럼형 JSON / 컬럼형 Smile)
+ * 포맷별 payload 크기는 trial 시작 시 한 번 출력한다
+ */
+@State(Scope.Benchmark)
+public class MemberEncodingBenchmark {
+
+    @Param({"1000", "100000"})
+    public int rows;
+
+    @Param({"json", "smile", "cbor", "columnar-json", "columnar-smile"})
+    public String format;
+
+    private List<Member> members;
+    private ObjectMapper objectMapper;
+    private boolean columnar;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        members = MemberFixtures.members(rows);
+        columnar = format.startsWith("columnar");
+        Jackson2ObjectMapperBuilder builder = Jackson2ObjectMapperBuilder.json();
+        if (format.endsWith("smile")) {
+            builder.factory(new SmileFactory());
+        } else if (format.equals("cbor")) {
+            builder.factory(new CBORFactory());
+        }
+        objectMapper = builder.build();
+        System.out.printf("%n[payload] format=%s rows=%d bytes=%d%n", format, rows, encode().length);
+    }
+
+    @Benchmark
+    public byte[] encode() throws IOException {
+        if (!columnar) {
+            return objectMapper.writeValueAsBytes(members);
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            MemberColumnarEncoder.write(members, generator);
+        }
+        return out.toByteArray();
+    }
+}
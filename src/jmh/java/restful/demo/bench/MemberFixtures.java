@@ -0,0 +1,27 @@
+package restful.demo.bench;
+
+import restful.demo.api.dto.MemberImportRow;
+import restful.demo.api.entity.Member;
+import restful.demo.api.seed.SyntheticMemberGenerator;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 벤치마크용 회원 데이터 - 부하 테스트와 같은 SyntheticMemberGenerator 를 사용 (seed 고정이라 매번 같은 데이터)
+ */
+public final class MemberFixtures {
+
+    private MemberFixtures() {
+    }
+
+    public static List<Member> members(int count) {
+        List<Member> members = new ArrayList<>(count);
+        SyntheticMemberGenerator generator = new SyntheticMemberGenerator(count, 42);
+        while (generator.hasNext()) {
+            MemberImportRow row = generator.next();
+            members.add(row.toEntity());
+        }
+        return members;
+    }
+}
@@ -0,0 +1,49 @@
+package restful.demo.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.ConfigurableApplicationContext;
+import restful.demo.api.entity.Member;
+import restful.demo.api.repository.MemberRepository;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * MemberRepository.findAll (전체 조회) vs findByMemberOne (단건 JPQL)
+ */
+@State(Scope.Benchmark)
+public class MemberRepositoryBenchmark {
+
+    @Param({"1000"})
+    public int rows;
+
+    private ConfigurableApplicationContext context;
+    private MemberRepository memberRepository;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start(rows);
+        memberRepository = context.getBean(MemberRepository.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<Member> findAll() {
+        return memberRepository.findAll();
+    }
+
+    @Benchmark
+    public Member findByMemberOne() {
+        return memberRepository.findByMemberOne(ThreadLocalRandom.current().nextLong(1, rows + 1));
+    }
+}
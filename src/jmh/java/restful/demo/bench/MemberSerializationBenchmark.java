@@ -0,0 +1,38 @@
+package restful.demo.bench;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import restful.demo.api.entity.Member;
+
+import java.util.List;
+
+/**
+ * Member 목록 Jackson 직렬화 (DB 없이 메모리 데이터만)
+ */
+@State(Scope.Benchmark)
+public class MemberSerializationBenchmark {
+
+    @Param({"1000", "100000"})
+    public int rows;
+
+    private ObjectMapper objectMapper;
+    private List<Member> members;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build(); // 스프링 MVC 가 쓰는 것과 같은 설정
+        members = MemberFixtures.members(rows);
+    }
+
+    @Benchmark
+    public byte[] writeJson() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(members);
+    }
+}
@@ -0,0 +1,47 @@
+package restful.demo.loadtest;
+
+import java.util.Arrays;
+
+/**
+ * 경로 하나의 응답시간(마이크로초)과 오류 수 - 워커 스레드마다 따로 쓰고 마지막에 merge 한다
+ */
+class LatencyRecorder {
+
+    private long[] latencies = new long[1024];
+    private int count;
+    private long errors;
+
+    void record(long latencyMicros, boolean error) {
+        if (count == latencies.length) {
+            latencies = Arrays.copyOf(latencies, count * 2);
+        }
+        latencies[count++] = latencyMicros;
+        if (error) {
+            errors++;
+        }
+    }
+
+    void merge(LatencyRecorder other) {
+        for (int i = 0; i < other.count; i++) {
+            record(other.latencies[i], false);
+        }
+        errors += other.errors;
+    }
+
+    int count() {
+        return count;
+    }
+
+    long errors() {
+        return errors;
+    }
+
+    /**
+     * 정렬된 응답시간 복사본 (percentile 계산용)
+     */
+    long[] sorted() {
+        long[] sorted = Arrays.copyOf(latencies, count);
+        Arrays.sort(sorted);
+        return sorted;
+    }
+}
@@ -0,0 +1,44 @@
+package restful.demo.loadtest;
+
+import lombok.Getter;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * 부하 테스트 설정 - 시스템 프로퍼티(loadtest.*)로 받는다 (./gradlew loadTest -Pconcurrency=32 ...)
+ */
+@Getter
+public class LoadTestConfig {
+
+    private final String baseUrl;        // 비어 있으면 loadtest 프로파일로 애플리케이션을 직접 띄움
+    private final long rows;             // 직접 띄울 때 넣을 가상 회원 수
+    private final int concurrency;       // 동시에 요청하는 워커 수
+    private final int rate;              // 초당 요청 수 상한 (0 이면 제한 없음)
+    private final Duration warmup;
+    private final Duration duration;
+    private final List<String> paths;    // 워커가 돌아가며 호출할 경로 (; 로 구분 - fields=a,b 처럼 경로 안에 , 가 들어가므로)
+    private final String reportDir;
+
+    private LoadTestConfig() {
+        this.baseUrl = System.getProperty("loadtest.baseUrl", "");
+        this.rows = Long.getLong("loadtest.rows", 100_000L);
+        this.concurrency = Integer.getInteger("loadtest.concurrency", 16);
+        this.rate = Integer.getInteger("loadtest.rate", 0);
+        this.warmup = Duration.ofSeconds(Long.getLong("loadtest.warmupSeconds", 10L));
+        this.duration = Duration.ofSeconds(Long.getLong("loadtest.durationSeconds", 60L));
+        this.paths = Arrays.stream(System.getProperty("loadtest.paths",
+                        "/memberOne;/members?size=100;/members?fields=id,stuNo,name&size=100;/members/search?sustCd=SUSTCD001&size=20;/members/stats?groupBy=sustCd")
+                        .split(";"))
+                .map(String::trim)
+                .filter(path -> !path.isEmpty())
+                .collect(Collectors.toList());
+        this.reportDir = System.getProperty("loadtest.reportDir", "build/loadtest");
+    }
+
+    public static LoadTestConfig fromSystemProperties() {
+        return new LoadTestConfig();
+    }
+}
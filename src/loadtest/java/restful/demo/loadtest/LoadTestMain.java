@@ -0,0 +1,188 @@
+package restful.demo.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import restful.demo.DemoApplication;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 부하 테스트 실행기
+ *  1. loadtest.baseUrl 이 없으면 loadtest 프로파일(내장 H2 + 가상 회원 loadtest.rows 건)로 애플리케이션을 띄운다
+ *  2. loadtest.concurrency 개의 워커가 loadtest.paths 를 돌아가며 호출 (loadtest.rate 로 초당 요청 수 제한)
+ *  3. warmup 이후 구간의 경로별 처리량, 응답시간 percentile, 오류율을 build/loadtest/report-*.json 으로 남긴다
+ *
+ * 304, 503 도 응답시간에는 포함하고, 2xx/304 가 아닌 응답과 예외는 오류로 센다
+ */
+public class LoadTestMain {
+
+    public static void main(String[] args) throws Exception {
+        LoadTestConfig config = LoadTestConfig.fromSystemProperties();
+        ConfigurableApplicationContext context = null;
+        String baseUrl = config.getBaseUrl();
+        if (baseUrl.isEmpty()) {
+            context = new SpringApplicationBuilder(DemoApplication.class)
+                    .profiles("loadtest")
+                    .properties("server.port=0", "member.seed.count=" + config.getRows())
+                    .run(args);
+            baseUrl = "http://localhost:" + ((WebServerApplicationContext) context).getWebServer().getPort();
+        }
+        try {
+            Map<String, Object> report = run(config, baseUrl);
+            Path file = writeReport(config, report);
+            System.out.println("load test report: " + file.toAbsolutePath());
+        } finally {
+            if (context != null) {
+                context.close();
+            }
+        }
+    }
+
+    private static Map<String, Object> run(LoadTestConfig config, String baseUrl) throws InterruptedException {
+        // 두 풀 모두 데몬 스레드가 아니므로 끝나면 꼭 내려야 JVM(./gradlew loadTest) 이 종료된다
+        ExecutorService clientPool = Executors.newFixedThreadPool(Math.max(2, config.getConcurrency() / 4));
+        HttpClient client = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(clientPool)
+                .build();
+        long intervalNanos = config.getRate() > 0 ? TimeUnit.SECONDS.toNanos(1) / config.getRate() : 0;
+        AtomicLong nextSlot = new AtomicLong(System.nanoTime());
+        long measureFrom = System.nanoTime() + config.getWarmup().toNanos();
+        long endAt = measureFrom + config.getDuration().toNanos();
+
+        List<Map<String, LatencyRecorder>> perWorker = new ArrayList<>();
+        ExecutorService workers = Executors.newFixedThreadPool(config.getConcurrency());
+        try {
+            startWorkers(config, client, baseUrl, workers, perWorker, nextSlot, intervalNanos, measureFrom, endAt);
+            workers.shutdown();
+            workers.awaitTermination(config.getWarmup().plus(config.getDuration()).plusMinutes(1).toMillis(), TimeUnit.MILLISECONDS);
+        } finally {
+            workers.shutdownNow();
+            clientPool.shutdownNow();
+        }
+        return report(config, baseUrl, perWorker);
+    }
+
+    private static void startWorkers(LoadTestConfig config, HttpClient client, String baseUrl, ExecutorService workers,
+                                     List<Map<String, LatencyRecorder>> perWorker, AtomicLong nextSlot,
+                                     long intervalNanos, long measureFrom, long endAt) {
+        List<String> paths = config.getPaths();
+        for (int w = 0; w < config.getConcurrency(); w++) {
+            Map<String, LatencyRecorder> recorders = new HashMap<>();
+            paths.forEach(path -> recorders.put(path, new LatencyRecorder()));
+            perWorker.add(recorders);
+            int offset = w;
+            String base = baseUrl;
+            workers.submit(() -> {
+                long i = offset;
+                while (System.nanoTime() < endAt) {
+                    if (intervalNanos > 0) {
+                        long slot = nextSlot.getAndAdd(intervalNanos);
+                        long wait = slot - System.nanoTime();
+                        if (wait > 0) {
+                            LockSupport.parkNanos(wait);
+                        }
+                    }
+                    String path = paths.get((int) (i++ % paths.size()));
+                    long start = System.nanoTime();
+                    boolean error;
+                    try {
+                        HttpResponse<Void> response = client.send(
+                                HttpRequest.newBuilder(URI.create(base + path)).timeout(Duration.ofSeconds(30)).GET().build(),
+                                HttpResponse.BodyHandlers.discarding());
+                        error = response.statusCode() >= 400;
+                    } catch (IOException e) {
+                        error = true;
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                    if (start >= measureFrom) {
+                        recorders.get(path).record((System.nanoTime() - start) / 1000, error);
+                    }
+                }
+            });
+        }
+    }
+
+    private static Map<String, Object> report(LoadTestConfig config, String baseUrl, List<Map<String, LatencyRecorder>> perWorker) {
+        List<String> paths = config.getPaths();
+        double seconds = config.getDuration().toMillis() / 1000.0;
+        Map<String, Object> endpoints = new LinkedHashMap<>();
+        LatencyRecorder total = new LatencyRecorder();
+        for (String path : paths) {
+            LatencyRecorder merged = new LatencyRecorder();
+            perWorker.forEach(recorders -> merged.merge(recorders.get(path)));
+            total.merge(merged);
+            endpoints.put(path, summary(merged, seconds));
+        }
+
+        Map<String, Object> settings = new LinkedHashMap<>();
+        settings.put("baseUrl", baseUrl);
+        settings.put("rows", config.getBaseUrl().isEmpty() ? config.getRows() : null);
+        settings.put("concurrency", config.getConcurrency());
+        settings.put("rate", config.getRate());
+        settings.put("warmupSeconds", config.getWarmup().getSeconds());
+        settings.put("durationSeconds", config.getDuration().getSeconds());
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("startedAt", LocalDateTime.now().toString());
+        report.put("config", settings);
+        report.put("total", summary(total, seconds));
+        report.put("endpoints", endpoints);
+        return report;
+    }
+
+    private static Map<String, Object> summary(LatencyRecorder recorder, double seconds) {
+        long[] sorted = recorder.sorted();
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("requests", recorder.count());
+        summary.put("errors", recorder.errors());
+        summary.put("errorRate", recorder.count() == 0 ? 0.0 : (double) recorder.errors() / recorder.count());
+        summary.put("throughputPerSec", recorder.count() / seconds);
+        summary.put("p50Ms", percentile(sorted, 0.50));
+        summary.put("p90Ms", percentile(sorted, 0.90));
+        summary.put("p99Ms", percentile(sorted, 0.99));
+        summary.put("maxMs", sorted.length == 0 ? 0.0 : sorted[sorted.length - 1] / 1000.0);
+        return summary;
+    }
+
+    private static double percentile(long[] sorted, double quantile) {
+        if (sorted.length == 0) {
+            return 0.0;
+        }
+        int index = (int) Math.ceil(quantile * sorted.length) - 1;
+        return sorted[Math.max(0, index)] / 1000.0;
+    }
+
+    private static Path writeReport(LoadTestConfig config, Map<String, Object> report) throws IOException {
+        Path dir = Paths.get(config.getReportDir());
+        Files.createDirectories(dir);
+        Path file = dir.resolve("report-" + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss")) + ".json");
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(file.toFile(), report);
+        return file;
+    }
+}
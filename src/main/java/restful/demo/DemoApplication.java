@@ -2,12 +2,18 @@ package restful.demo;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
 
 @SpringBootApplication
 public class DemoApplication {
 
+	// 기동 단계(StartupStep) 기록 버퍼 - StartupTimelineReporter, /actuator/startup 에서 읽는다
+	private static final int STARTUP_STEP_CAPACITY = 4096;
+
 	public static void main(String[] args) {
-		SpringApplication.run(DemoApplication.class, args);
+		SpringApplication application = new SpringApplication(DemoApplication.class);
+		application.setApplicationStartup(new BufferingApplicationStartup(STARTUP_STEP_CAPACITY));
+		application.run(args);
 	}
 
 }
@@ -0,0 +1,212 @@
+package restful.demo.api.cache;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import restful.demo.api.entity.Member;
+import restful.demo.api.event.MemberChangedEvent;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+/**
+ * findMemberOne 앞단의 read-through 캐시
+ *  - 최대 개수를 넘으면 가장 오래 사용하지 않은 항목부터 제거(LRU)
+ *  - ttl 이 지난 항목은 조회 시점에 제거
+ *  - Member 가 저장/수정/삭제되면 커밋 이후 해당 id 를 무효화
+ *  - 로더가 DB 에서 읽는 동안 같은 id 가 무효화됐으면 읽은 값(수정 전일 수 있음)은 캐시에 넣지 않는다
+ *    (무효화마다 generation 을 올리고, 로드 중일 때만 id 별로 무효화된 generation 을 기록)
+ */
+@Component
+public class MemberCache {
+
+    private final int maxSize;
+    private final long ttlNanos;
+    private final LongSupplier ticker;
+
+    private final LinkedHashMap<Long, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    // 아래 값들은 entries 락 안에서만 읽고 쓴다
+    private long generation;
+    private long allInvalidatedAt;
+    private int loadsInFlight;
+    private final Map<Long, Long> invalidatedAt = new HashMap<>();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong invalidations = new AtomicLong();
+
+    @Autowired
+    public MemberCache(@Value("${member.cache.max-size:10000}") int maxSize,
+                       @Value("${member.cache.ttl:5m}") Duration ttl) {
+        this(maxSize, ttl, System::nanoTime);
+    }
+
+    MemberCache(int maxSize, Duration ttl, LongSupplier ticker) {
+        this.maxSize = maxSize;
+        this.ttlNanos = ttl.toNanos();
+        this.ticker = ticker;
+    }
+
+    /**
+     * 캐시에 있으면 바로 반환하고, 없으면 loader 로 읽어서 캐시에 넣는다
+     * (loader 가 null 을 반환하면 캐시하지 않는다)
+     */
+    public Member get(Long id, Function<Long, Member> loader) {
+        Member cached = getIfPresent(id);
+        if (cached != null) {
+            return cached;
+        }
+        long startedAt = beginLoad();
+        Member loaded = null;
+        try {
+            loaded = loader.apply(id);
+            return loaded;
+        } finally {
+            endLoad(loaded == null ? Map.of() : Map.of(id, loaded), startedAt);
+        }
+    }
+
+    /**
+     * 캐시에 없는 id 만 모아서 loader 한 번으로 읽고 캐시에 넣는다 (없는 id 는 결과에서 빠진다)
+     */
+    public Map<Long, Member> getAll(Collection<Long> ids, Function<List<Long>, Map<Long, Member>> loader) {
+        Map<Long, Member> found = new HashMap<>();
+        List<Long> missing = new ArrayList<>();
+        for (Long id : ids) {
+            Member cached = getIfPresent(id);
+            if (cached != null) {
+                found.put(id, cached);
+            } else {
+                missing.add(id);
+            }
+        }
+        if (missing.isEmpty()) {
+            return found;
+        }
+        long startedAt = beginLoad();
+        Map<Long, Member> loaded = Map.of();
+        try {
+            loaded = loader.apply(missing);
+            found.putAll(loaded);
+            return found;
+        } finally {
+            endLoad(loaded, startedAt);
+        }
+    }
+
+    private long beginLoad() {
+        synchronized (entries) {
+            loadsInFlight++;
+            return generation;
+        }
+    }
+
+    private void endLoad(Map<Long, Member> loaded, long startedAt) {
+        synchronized (entries) {
+            if (allInvalidatedAt <= startedAt) {
+                loaded.forEach((id, member) -> {
+                    if (invalidatedAt.getOrDefault(id, startedAt) <= startedAt) {
+                        putLocked(id, member);
+                    }
+                });
+            }
+            if (--loadsInFlight == 0) {
+                invalidatedAt.clear();
+            }
+        }
+    }
+
+    public Member getIfPresent(Long id) {
+        synchronized (entries) {
+            Entry entry = entries.get(id);
+            if (entry != null && entry.expiresAt - ticker.getAsLong() > 0) {
+                hits.incrementAndGet();
+                return entry.member;
+            }
+            if (entry != null) {
+                entries.remove(id);
+                evictions.incrementAndGet();
+            }
+        }
+        misses.incrementAndGet();
+        return null;
+    }
+
+    public void put(Long id, Member member) {
+        synchronized (entries) {
+            putLocked(id, member);
+        }
+    }
+
+    private void putLocked(Long id, Member member) {
+        entries.put(id, new Entry(member, ticker.getAsLong() + ttlNanos));
+        Iterator<Map.Entry<Long, Entry>> eldest = entries.entrySet().iterator();
+        while (entries.size() > maxSize && eldest.hasNext()) {
+            eldest.next();
+            eldest.remove();
+            evictions.incrementAndGet();
+        }
+    }
+
+    public void invalidate(Long id) {
+        synchronized (entries) {
+            generation++;
+            if (loadsInFlight > 0) {
+                invalidatedAt.put(id, generation);
+            }
+            if (entries.remove(id) != null) {
+                invalidations.incrementAndGet();
+            }
+        }
+    }
+
+    public void invalidateAll() {
+        synchronized (entries) {
+            allInvalidatedAt = ++generation;
+            invalidations.addAndGet(entries.size());
+            entries.clear();
+        }
+    }
+
+    // 트랜잭션 밖에서 바로 반영된 변경도 무효화되도록 fallbackExecution = true
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMemberChanged(MemberChangedEvent event) {
+        invalidate(event.getMemberId());
+    }
+
+    public Stats stats() {
+        synchronized (entries) {
+            return new Stats(entries.size(), hits.get(), misses.get(), evictions.get(), invalidations.get());
+        }
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class Stats {
+        private final int size;
+        private final long hits;
+        private final long misses;
+        private final long evictions;
+        private final long invalidations;
+    }
+
+    @AllArgsConstructor
+    private static class Entry {
+        private final Member member;
+        private final long expiresAt;
+    }
+}
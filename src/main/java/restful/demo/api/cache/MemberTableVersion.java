@@ -0,0 +1,204 @@
+package restful.demo.api.cache;
+
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.context.request.ServletWebRequest;
+import restful.demo.api.codec.MemberColumnarHttpMessageConverter;
+import restful.demo.api.event.MemberChangedEvent;
+import restful.demo.api.repository.MemberVersionCounter;
+import restful.demo.api.shard.ShardedMemberRepository;
+
+import javax.annotation.PreDestroy;
+import javax.servlet.http.HttpServletResponse;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * 회원 데이터의 버전 - 목록/단건 조회 응답의 ETag 로 사용해서, 변경이 없으면 조회나 직렬화 없이 304 를 돌려준다
+ *  - 버전은 쓰기 트랜잭션 안에서 올리고 커밋 순서대로 커지는 member_version 값이다 (MemberVersionCounter)
+ *    member.shard.enabled=true 면 샤드마다의 member_version 도 같이 넣는다
+ *  - 요청 스레드는 메모리에 있는 값만 비교하고 DB 는 읽지 않는다. 값은 백그라운드 스레드가 읽는다
+ *     - 이 인스턴스의 변경이 커밋되면(MemberChangedEvent - JPA, write-behind, 샤드 모두 발행) 값을 버리고 바로 다시 읽는다
+ *       다시 읽기 전까지는 304 를 주지 않는다 (전체 응답)
+ *     - 다른 인스턴스의 변경은 max-age 마다 다시 읽어서 반영한다 (그 사이에는 이전 버전으로 304 가 나갈 수 있음)
+ *  - 공통코드 사전 내용이 바뀌면 코드명이 들어간 응답도 달라지므로 사전 내용 해시를 같이 넣는다
+ *  - 같은 URL 이 Accept 에 따라 JSON/Smile/CBOR/컬럼형으로 응답하므로 고른 포맷을 넣고 Vary: Accept 를 붙인다 (MemberCodecConfig)
+ * Last-Modified(초 단위) 로는 같은 초 안의 변경을 구분할 수 없으므로 조건부 요청은 ETag 로만 판단한다
+ */
+@Slf4j
+@Component
+public class MemberTableVersion {
+
+    private static final String JSON = "j";
+    // Accept 로 고를 수 있는 JSON 이외의 포맷 - ETag 에는 짧은 이름만 넣는다
+    private static final Map<MediaType, String> REPRESENTATIONS = new LinkedHashMap<>();
+
+    static {
+        REPRESENTATIONS.put(MemberColumnarHttpMessageConverter.COLUMNAR_JSON, "cj");
+        REPRESENTATIONS.put(MemberColumnarHttpMessageConverter.COLUMNAR_SMILE, "cs");
+        REPRESENTATIONS.put(MediaType.parseMediaType("application/x-jackson-smile"), "s");
+        REPRESENTATIONS.put(MediaType.APPLICATION_CBOR, "c");
+    }
+
+    private final Supplier<String> versionSource;
+    private final ScheduledExecutorService scheduler;
+
+    private final AtomicLong generation = new AtomicLong();
+    private final AtomicBoolean refreshQueued = new AtomicBoolean(); // 한 flush 의 이벤트 수백 건이 다시 읽기 한 번으로 합쳐진다
+    private volatile Cached cached;
+    private volatile int codesHash;
+
+    @Autowired
+    public MemberTableVersion(MemberVersionCounter memberVersionCounter,
+                              ObjectProvider<ShardedMemberRepository> shardedMemberRepository,
+                              @Value("${member.etag.max-age:1s}") Duration maxAge) {
+        this(versionSource(memberVersionCounter, shardedMemberRepository.getIfAvailable()), Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "member-table-version");
+            thread.setDaemon(true);
+            return thread;
+        }));
+        long millis = maxAge.toMillis();
+        if (millis > 0) {
+            scheduler.scheduleWithFixedDelay(this::refreshQuietly, 0, millis, TimeUnit.MILLISECONDS);
+        } else {
+            scheduler.execute(this::refreshQuietly); // 0 이면 이 인스턴스의 변경만 따라간다
+        }
+    }
+
+    MemberTableVersion(Supplier<String> versionSource, ScheduledExecutorService scheduler) {
+        this.versionSource = versionSource;
+        this.scheduler = scheduler;
+    }
+
+    private static Supplier<String> versionSource(MemberVersionCounter memberVersionCounter, ShardedMemberRepository shardedMemberRepository) {
+        if (shardedMemberRepository == null) {
+            return () -> Long.toString(memberVersionCounter.current(), 36);
+        }
+        // 기본 DB 쪽 버전은 tombstone 등 샤드 밖의 변경
+        return () -> shardedMemberRepository.version() + "." + Long.toString(memberVersionCounter.current(), 36);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMemberChanged(MemberChangedEvent event) {
+        generation.incrementAndGet();
+        if (refreshQueued.compareAndSet(false, true)) {
+            scheduler.execute(() -> {
+                refreshQueued.set(false);
+                refreshQuietly();
+            });
+        }
+    }
+
+    /**
+     * 공통코드 사전 내용이 바뀌었을 때 (CodeDictionary) - 내용 해시라 인스턴스마다 같은 값이 된다
+     */
+    public void codesChanged(int contentHash) {
+        codesHash = contentHash;
+    }
+
+    /**
+     * 지금 버전, 아직 읽지 못했거나 변경 뒤 다시 읽는 중이면 null
+     */
+    public String current() {
+        Cached current = cached;
+        return current != null && current.generation == generation.get() ? current.token : null;
+    }
+
+    /**
+     * DB 에서 버전을 다시 읽는다 - 읽는 도중에 변경 이벤트가 오면 읽은 값은 쓰지 않는다 (이벤트가 다시 읽기를 예약함)
+     */
+    void refresh() {
+        long startedAt = generation.get();
+        String token = versionSource.get();
+        cached = new Cached(token, startedAt);
+    }
+
+    private void refreshQuietly() {
+        try {
+            refresh();
+        } catch (RuntimeException e) {
+            log.warn("member version refresh failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * If-None-Match 가 현재 버전과 같으면 304 를 세팅하고 true 를 반환 (버전을 모르면 ETag 없이 false)
+     * 쿼리스트링과 응답 포맷이 다르면 응답도 다르므로 ETag 에 같이 넣는다
+     */
+    public boolean checkNotModified(ServletWebRequest request) {
+        varyOnAccept(request.getResponse());
+        String version = current();
+        if (version == null) {
+            return false;
+        }
+        String queryString = request.getRequest().getQueryString();
+        String variant = queryString == null ? "" : "-" + Integer.toHexString(queryString.hashCode());
+        String representation = representation(request.getHeader(HttpHeaders.ACCEPT));
+        String etag = "W/\"m" + version + "." + Integer.toHexString(codesHash) + "." + representation + variant + "\"";
+        return request.checkNotModified(etag);
+    }
+
+    /**
+     * 컨텐츠 협상과 같은 순서(구체적이고 q 가 높은 것 먼저)로 Accept 를 보고 응답할 포맷을 고른다
+     * 와일드카드나 JSON 이 먼저 나오면 기본 컨버터인 JSON 으로 응답한다
+     */
+    static String representation(String accept) {
+        if (accept == null) {
+            return JSON;
+        }
+        List<MediaType> requested;
+        try {
+            requested = MediaType.parseMediaTypes(accept);
+        } catch (InvalidMediaTypeException e) {
+            return JSON;
+        }
+        MediaType.sortBySpecificityAndQuality(requested);
+        for (MediaType type : requested) {
+            if (type.getQualityValue() == 0) {
+                continue;
+            }
+            if (!type.isConcrete() || MediaType.APPLICATION_JSON.isCompatibleWith(type)) {
+                return JSON;
+            }
+            for (Map.Entry<MediaType, String> representation : REPRESENTATIONS.entrySet()) {
+                if (representation.getKey().isCompatibleWith(type)) {
+                    return representation.getValue();
+                }
+            }
+        }
+        return JSON;
+    }
+
+    private void varyOnAccept(HttpServletResponse response) {
+        if (response != null && response.getHeaders(HttpHeaders.VARY).stream().noneMatch(HttpHeaders.ACCEPT::equalsIgnoreCase)) {
+            response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    @AllArgsConstructor
+    private static class Cached {
+        private final String token;
+        private final long generation; // 읽기 시작할 때의 generation - 지금과 다르면 그 사이에 변경이 커밋된 것
+    }
+}
@@ -0,0 +1,173 @@
+package restful.demo.api.code;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import restful.demo.api.cache.MemberTableVersion;
+import restful.demo.api.dto.MemberWithCodeNames;
+import restful.demo.api.entity.CodeGroup;
+import restful.demo.api.entity.CommonCode;
+import restful.demo.api.entity.Member;
+import restful.demo.api.repository.CommonCodeRepository;
+
+import javax.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * 공통코드 사전 - 코드 -> 코드명 을 메모리에 들고 있다
+ *  - 기동 시 common_code 전체를 한 번 읽고, /codes/reload 나 refresh-interval 마다 다시 읽는다
+ *  - 다시 읽을 때는 새 불변 스냅샷을 만든 뒤 volatile 참조만 바꾼다 (읽는 쪽은 락 없이 항상 완성된 스냅샷을 본다)
+ *  - 내용이 바뀌었으면 MemberTableVersion 에 내용 해시를 넘겨서 코드명이 들어간 응답의 ETag 도 바뀌게 한다
+ */
+@Slf4j
+@Component
+public class CodeDictionary {
+
+    private final CommonCodeRepository commonCodeRepository;
+    private final MemberTableVersion memberTableVersion;
+    private final Duration refreshInterval;
+    private volatile Snapshot snapshot = Snapshot.EMPTY;
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "code-dictionary-refresh");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public CodeDictionary(CommonCodeRepository commonCodeRepository,
+                          MemberTableVersion memberTableVersion,
+                          @Value("${member.codes.refresh-interval:0}") Duration refreshInterval) {
+        this.commonCodeRepository = commonCodeRepository;
+        this.memberTableVersion = memberTableVersion;
+        this.refreshInterval = refreshInterval;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void preload() {
+        reload();
+        if (!refreshInterval.isZero() && !refreshInterval.isNegative()) {
+            long millis = refreshInterval.toMillis();
+            scheduler.scheduleWithFixedDelay(this::refreshQuietly, millis, millis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * DB 에서 다시 읽어서 스냅샷 교체 (내용이 같으면 기존 스냅샷 유지)
+     */
+    public synchronized Snapshot reload() {
+        long start = System.currentTimeMillis();
+        List<CommonCode> codes = commonCodeRepository.findByUsedTrueOrderByCodeGroupAscSortOrderAscCodeAsc();
+        Map<CodeGroup, Map<String, String>> names = new EnumMap<>(CodeGroup.class);
+        for (CodeGroup group : CodeGroup.values()) {
+            names.put(group, new LinkedHashMap<>());
+        }
+        for (CommonCode code : codes) {
+            names.get(code.getCodeGroup()).put(code.getCode(), code.getCodeName());
+        }
+        Snapshot current = snapshot;
+        if (current.names.equals(names)) {
+            return current;
+        }
+        names.replaceAll((group, map) -> Collections.unmodifiableMap(map));
+        Snapshot next = new Snapshot(current.version + 1, System.currentTimeMillis(), codes.size(), Collections.unmodifiableMap(names));
+        snapshot = next;
+        memberTableVersion.codesChanged(contentHash(next.names));
+        log.info("code dictionary loaded. version={}, codes={}, elapsed={}ms", next.version, next.size, System.currentTimeMillis() - start);
+        return next;
+    }
+
+    /**
+     * 인스턴스마다 같은 값이 나오는 내용 해시 (EnumMap.hashCode 는 enum 의 identity hash 를 써서 JVM 마다 다르다)
+     */
+    static int contentHash(Map<CodeGroup, Map<String, String>> names) {
+        int hash = 1;
+        for (Map.Entry<CodeGroup, Map<String, String>> entry : names.entrySet()) {
+            hash = 31 * hash + entry.getKey().name().hashCode();
+            hash = 31 * hash + entry.getValue().hashCode();
+        }
+        return hash;
+    }
+
+    private void refreshQuietly() {
+        try {
+            reload();
+        } catch (RuntimeException e) {
+            log.warn("code dictionary refresh failed. keep version={}", snapshot.version, e); // 실패하면 이전 스냅샷을 계속 사용
+        }
+    }
+
+    public Snapshot current() {
+        return snapshot;
+    }
+
+    /**
+     * 코드명 (사전에 없으면 null)
+     */
+    public String name(CodeGroup group, String code) {
+        return code == null ? null : snapshot.names.get(group).get(code);
+    }
+
+    /**
+     * 회원의 코드 컬럼별 코드명 (sustCd -> 학과명 ...) - 한 번 읽은 스냅샷으로 모든 컬럼을 채운다
+     */
+    public Map<String, String> namesOf(Member member) {
+        Snapshot current = snapshot;
+        Map<String, String> names = new LinkedHashMap<>();
+        for (CodeGroup group : CodeGroup.values()) {
+            String code = group.codeOf(member);
+            names.put(group.getField(), code == null ? null : current.names.get(group).get(code));
+        }
+        return names;
+    }
+
+    public MemberWithCodeNames describe(Member member) {
+        return member == null ? null : new MemberWithCodeNames(member, namesOf(member));
+    }
+
+    public List<MemberWithCodeNames> describe(List<Member> members) {
+        return members.stream().map(this::describe).collect(Collectors.toList());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    @Getter
+    public static class Snapshot {
+
+        static final Snapshot EMPTY = new Snapshot(0, 0, 0, emptyNames());
+
+        private final long version;
+        private final long loadedAt; // epoch millis
+        private final int size;
+        private final Map<CodeGroup, Map<String, String>> names;
+
+        Snapshot(long version, long loadedAt, int size, Map<CodeGroup, Map<String, String>> names) {
+            this.version = version;
+            this.loadedAt = loadedAt;
+            this.size = size;
+            this.names = names;
+        }
+
+        private static Map<CodeGroup, Map<String, String>> emptyNames() {
+            Map<CodeGroup, Map<String, String>> names = new EnumMap<>(CodeGroup.class);
+            for (CodeGroup group : CodeGroup.values()) {
+                names.put(group, Collections.emptyMap());
+            }
+            return Collections.unmodifiableMap(names);
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package restful.demo.api.codec;
+
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+/**
+ * Accept 헤더로 고를 수 있는 바이너리 응답 포맷
+ *  - application/x-jackson-smile           : Smile (반복되는 필드명을 백레퍼런스로 한 번만 씀)
+ *  - application/cbor                      : CBOR
+ *  - application/vnd.member.columnar+json  : 컬럼형 + 코드 사전 인코딩 (JSON)
+ *  - application/vnd.member.columnar+smile : 컬럼형 + 코드 사전 인코딩 (Smile)
+ * 아무것도 지정하지 않으면 기존처럼 JSON
+ *
+ * Jackson2ObjectMapperBuilder 는 prototype 빈이라 메서드마다 새로 주입받으므로 factory 를 바꿔도 서로 영향이 없다
+ */
+@Configuration
+public class MemberCodecConfig {
+
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2SmileHttpMessageConverter(builder.factory(new SmileFactory()).build());
+    }
+
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(builder.factory(new CBORFactory()).build());
+    }
+
+    @Bean
+    public MemberColumnarHttpMessageConverter columnarJsonHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MemberColumnarHttpMessageConverter(builder.build(), MemberColumnarHttpMessageConverter.COLUMNAR_JSON);
+    }
+
+    @Bean
+    public MemberColumnarHttpMessageConverter columnarSmileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MemberColumnarHttpMessageConverter(builder.factory(new SmileFactory()).build(),
+                MemberColumnarHttpMessageConverter.COLUMNAR_SMILE);
+    }
+}
@@ -0,0 +1,93 @@
+package restful.demo.api.codec;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import restful.demo.api.entity.Address;
+import restful.demo.api.entity.Member;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Member 목록을 컬럼 단위로 쓴다 - 필드명은 컬럼마다 한 번만 나온다
+ *  - 값이 다양한 컬럼(id, stuNo, name ...) : 값 배열
+ *  - 코드 컬럼(enterYear, sustCd, mjrCd ...) : {"dict": [코드값...], "codes": [dict 인덱스...]} (null 은 -1)
+ *
+ * {"count":2,"id":[1,2],"stuNo":["20210001","20210002"],"sustCd":{"dict":["SUSTCD001"],"codes":[0,0]}, ...}
+ */
+public final class MemberColumnarEncoder {
+
+    private static final Map<String, Function<Member, Object>> VALUE_COLUMNS = new LinkedHashMap<>();
+    private static final Map<String, Function<Member, String>> CODE_COLUMNS = new LinkedHashMap<>();
+
+    static {
+        VALUE_COLUMNS.put("id", Member::getId);
+        VALUE_COLUMNS.put("stuNo", Member::getStuNo);
+        VALUE_COLUMNS.put("name", Member::getName);
+        VALUE_COLUMNS.put("birthMd", Member::getBirthMd);
+        VALUE_COLUMNS.put("cptnShtmCnt", Member::getCptnShtmCnt);
+        VALUE_COLUMNS.put("email", Member::getEmail);
+        VALUE_COLUMNS.put("address.street", member -> member.getAddress() == null ? null : member.getAddress().getStreet());
+        VALUE_COLUMNS.put("address.zipcode", member -> member.getAddress() == null ? null : member.getAddress().getZipcode());
+        VALUE_COLUMNS.put("changedAt", Member::getChangedAt);
+
+        CODE_COLUMNS.put("enterYear", Member::getEnterYear);
+        CODE_COLUMNS.put("sustCd", Member::getSustCd);
+        CODE_COLUMNS.put("mjrCd", Member::getMjrCd);
+        CODE_COLUMNS.put("shysCd", Member::getShysCd);
+        CODE_COLUMNS.put("shtmCd", Member::getShtmCd);
+        CODE_COLUMNS.put("finSchregDivCd", Member::getFinSchregDivCd);
+        CODE_COLUMNS.put("gender", member -> member.getGender() == null ? null : member.getGender().getCode());
+        CODE_COLUMNS.put("address.city", member -> {
+            Address address = member.getAddress();
+            return address == null ? null : address.getCity();
+        });
+    }
+
+    private MemberColumnarEncoder() {
+    }
+
+    public static void write(List<Member> members, JsonGenerator generator) throws IOException {
+        generator.writeStartObject();
+        generator.writeNumberField("count", members.size());
+        for (Map.Entry<String, Function<Member, Object>> column : VALUE_COLUMNS.entrySet()) {
+            generator.writeFieldName(column.getKey());
+            generator.writeStartArray();
+            for (Member member : members) {
+                generator.writeObject(column.getValue().apply(member));
+            }
+            generator.writeEndArray();
+        }
+        for (Map.Entry<String, Function<Member, String>> column : CODE_COLUMNS.entrySet()) {
+            writeCodeColumn(column.getKey(), column.getValue(), members, generator);
+        }
+        generator.writeEndObject();
+    }
+
+    private static void writeCodeColumn(String name, Function<Member, String> getter,
+                                        List<Member> members, JsonGenerator generator) throws IOException {
+        Map<String, Integer> index = new HashMap<>();
+        List<String> dictionary = new ArrayList<>();
+        int[] codes = new int[members.size()];
+        for (int i = 0; i < members.size(); i++) {
+            String value = getter.apply(members.get(i));
+            codes[i] = value == null ? -1 : index.computeIfAbsent(value, v -> {
+                dictionary.add(v);
+                return dictionary.size() - 1;
+            });
+        }
+        generator.writeObjectFieldStart(name);
+        generator.writeArrayFieldStart("dict");
+        for (String value : dictionary) {
+            generator.writeString(value);
+        }
+        generator.writeEndArray();
+        generator.writeFieldName("codes");
+        generator.writeArray(codes, 0, codes.length);
+        generator.writeEndObject();
+    }
+}
@@ -0,0 +1,99 @@
+package restful.demo.api.codec;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.core.ResolvableType;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractGenericHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import restful.demo.api.entity.Member;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.List;
+
+import javax.servlet.http.HttpServletRequest;
+
+/**
+ * List&lt;Member&gt; 응답을 컬럼형(MemberColumnarEncoder)으로 쓰는 컨버터 - 쓰기 전용
+ * 같은 구조를 JSON 으로 쓸지 Smile 로 쓸지는 넘겨받은 ObjectMapper 가 결정한다
+ *
+ * 빈으로 등록된 컨버터는 기본 Jackson 컨버터보다 앞에 놓이므로, Accept 가 없거나 모든 타입을 허용할 때 이 형식이 골라지지 않도록
+ * 요청 Accept 헤더에 이 미디어 타입이 직접 적혀 있을 때만 응답 가능한 형식(producible)으로 나선다
+ */
+public class MemberColumnarHttpMessageConverter extends AbstractGenericHttpMessageConverter<List<Member>> {
+
+    public static final MediaType COLUMNAR_JSON = MediaType.parseMediaType("application/vnd.member.columnar+json");
+    public static final MediaType COLUMNAR_SMILE = MediaType.parseMediaType("application/vnd.member.columnar+smile");
+
+    private final ObjectMapper objectMapper;
+
+    public MemberColumnarHttpMessageConverter(ObjectMapper objectMapper, MediaType mediaType) {
+        super(mediaType);
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public boolean canRead(Type type, Class<?> contextClass, MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return List.class.isAssignableFrom(clazz);
+    }
+
+    @Override
+    public boolean canWrite(Type type, Class<?> clazz, MediaType mediaType) {
+        if (type == null || (mediaType == null ? !explicitlyAccepted() : !canWrite(mediaType))) {
+            return false;
+        }
+        ResolvableType resolvableType = ResolvableType.forType(type);
+        return List.class.isAssignableFrom(resolvableType.toClass())
+                && resolvableType.asCollection().resolveGeneric(0) == Member.class;
+    }
+
+    /**
+     * 현재 요청의 Accept 에 이 컨버터의 미디어 타입이 와일드카드 없이 들어 있는지
+     */
+    private boolean explicitlyAccepted() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (!(attributes instanceof ServletRequestAttributes)) {
+            return false;
+        }
+        HttpServletRequest request = ((ServletRequestAttributes) attributes).getRequest();
+        String accept = request.getHeader(HttpHeaders.ACCEPT);
+        if (accept == null) {
+            return false;
+        }
+        for (MediaType requested : MediaType.parseMediaTypes(accept)) {
+            if (requested.isConcrete() && getSupportedMediaTypes().stream().anyMatch(requested::isCompatibleWith)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    protected void writeInternal(List<Member> members, Type type, HttpOutputMessage outputMessage) throws IOException {
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputMessage.getBody())) {
+            MemberColumnarEncoder.write(members, generator);
+        }
+    }
+
+    @Override
+    public List<Member> read(Type type, Class<?> contextClass, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("columnar member format is write-only", inputMessage);
+    }
+
+    @Override
+    protected List<Member> readInternal(Class<? extends List<Member>> clazz, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("columnar member format is write-only", inputMessage);
+    }
+}
@@ -0,0 +1,86 @@
+package restful.demo.api.concurrency;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * AIMD 방식의 동시 실행 한도
+ *  - 응답시간이 목표 이하로 성공하면 한도를 천천히 올리고 (limit += 1 / limit)
+ *  - 목표를 넘기거나 실패하면 한도를 바로 줄인다 (limit *= backoffRatio)
+ *    단, 마지막으로 줄인 뒤에 시작한 요청이 느렸을 때만 다시 줄인다 (RTT 한 번에 한 번)
+ *    이전 한도로 이미 들어와 있던 요청들이 한꺼번에 느리게 끝나도 backoffRatio^N 으로 떨어지지 않는다
+ * 한도를 넘는 요청은 기다리게 하지 않고 tryAcquire 에서 바로 거절한다
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final long targetLatencyNanos;
+    private final double backoffRatio;
+    private final LongSupplier ticker;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicLong rejected = new AtomicLong();
+    private volatile double limit;
+    private boolean decreased;
+    private long lastDecreaseAt;
+
+    public AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit,
+                                      Duration targetLatency, double backoffRatio) {
+        this(initialLimit, minLimit, maxLimit, targetLatency, backoffRatio, System::nanoTime);
+    }
+
+    AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit,
+                               Duration targetLatency, double backoffRatio, LongSupplier ticker) {
+        this.ticker = ticker;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.targetLatencyNanos = targetLatency.toNanos();
+        this.backoffRatio = backoffRatio;
+        this.limit = Math.max(minLimit, Math.min(initialLimit, maxLimit));
+    }
+
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= (int) limit) {
+                rejected.incrementAndGet();
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    public void release(long latencyNanos, boolean success) {
+        inFlight.decrementAndGet();
+        long now = ticker.getAsLong();
+        synchronized (this) {
+            if (!success || latencyNanos > targetLatencyNanos) {
+                long startedAt = now - latencyNanos;
+                if (!decreased || startedAt - lastDecreaseAt >= 0) {
+                    limit = Math.max(minLimit, limit * backoffRatio);
+                    decreased = true;
+                    lastDecreaseAt = now;
+                }
+            } else {
+                limit = Math.min(maxLimit, limit + 1.0 / limit);
+            }
+        }
+    }
+
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    public long getRejected() {
+        return rejected.get();
+    }
+}
@@ -0,0 +1,128 @@
+package restful.demo.api.concurrency;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import net.ttddyy.dsproxy.QueryCount;
+import net.ttddyy.dsproxy.QueryCountHolder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import restful.demo.api.metrics.RequestSqlStats;
+
+import javax.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Supplier;
+
+/**
+ * DB 를 쓰는 조회를 톰캣 요청 스레드가 아닌 전용 스레드풀에서 실행한다
+ *  - 스레드 수는 커넥션 풀 크기와 같게, 대기열은 queue-capacity 로 제한
+ *  - AdaptiveConcurrencyLimiter 한도를 넘거나 대기열이 차면 바로 OverloadedException (503)
+ *  - 전체 조회(findAll 같은 full scan)는 submitScan 으로 별도 한도(scanLimiter)를 쓴다
+ *    느린 전체 조회가 단건/페이지 조회 한도까지 끌어내리지 않도록, 스캔이 스레드를 다 차지하지 않도록
+ *
+ *  /actuator/metrics/member.limiter.limit, member.limiter.inflight, member.limiter.rejected (스캔은 member.limiter.scan.*)
+ */
+@Slf4j
+@Component
+public class MemberQueryExecutor {
+
+    private final ThreadPoolTaskExecutor executor;
+    private final AdaptiveConcurrencyLimiter limiter;
+    private final AdaptiveConcurrencyLimiter scanLimiter;
+
+    public MemberQueryExecutor(MeterRegistry meterRegistry,
+                               @Value("${spring.datasource.hikari.maximum-pool-size:10}") int poolSize,
+                               @Value("${member.db-executor.queue-capacity:100}") int queueCapacity,
+                               @Value("${member.limiter.target-latency:200ms}") Duration targetLatency,
+                               @Value("${member.limiter.backoff-ratio:0.9}") double backoffRatio,
+                               @Value("${member.limiter.scan.max-concurrency:2}") int scanMaxConcurrency,
+                               @Value("${member.limiter.scan.target-latency:5s}") Duration scanTargetLatency) {
+        this.executor = new ThreadPoolTaskExecutor();
+        this.executor.setCorePoolSize(poolSize);
+        this.executor.setMaxPoolSize(poolSize);
+        this.executor.setQueueCapacity(queueCapacity);
+        this.executor.setThreadNamePrefix("member-db-");
+        this.executor.initialize();
+        this.limiter = new AdaptiveConcurrencyLimiter(poolSize, 1, poolSize + queueCapacity, targetLatency, backoffRatio);
+        int scanLimit = Math.max(1, Math.min(scanMaxConcurrency, poolSize));
+        this.scanLimiter = new AdaptiveConcurrencyLimiter(scanLimit, 1, scanLimit, scanTargetLatency, backoffRatio);
+
+        Gauge.builder("member.limiter.limit", limiter, AdaptiveConcurrencyLimiter::getLimit).register(meterRegistry);
+        Gauge.builder("member.limiter.inflight", limiter, AdaptiveConcurrencyLimiter::getInFlight).register(meterRegistry);
+        Gauge.builder("member.limiter.rejected", limiter, AdaptiveConcurrencyLimiter::getRejected).register(meterRegistry);
+        Gauge.builder("member.limiter.scan.limit", scanLimiter, AdaptiveConcurrencyLimiter::getLimit).register(meterRegistry);
+        Gauge.builder("member.limiter.scan.inflight", scanLimiter, AdaptiveConcurrencyLimiter::getInFlight).register(meterRegistry);
+        Gauge.builder("member.limiter.scan.rejected", scanLimiter, AdaptiveConcurrencyLimiter::getRejected).register(meterRegistry);
+        Gauge.builder("member.db-executor.queue", executor, e -> e.getThreadPoolExecutor().getQueue().size()).register(meterRegistry);
+    }
+
+    public <T> CompletableFuture<T> submit(Supplier<T> task) {
+        return submit(limiter, task);
+    }
+
+    /**
+     * 테이블 전체를 읽는 조회 - scanLimiter 한도 안에서만 실행
+     */
+    public <T> CompletableFuture<T> submitScan(Supplier<T> task) {
+        return submit(scanLimiter, task);
+    }
+
+    private <T> CompletableFuture<T> submit(AdaptiveConcurrencyLimiter limiter, Supplier<T> task) {
+        if (!limiter.tryAcquire()) {
+            return CompletableFuture.failedFuture(overloaded(limiter));
+        }
+        RequestSqlStats stats = currentRequestSqlStats();
+        long start = System.nanoTime();
+        try {
+            CompletableFuture<T> future = CompletableFuture.supplyAsync(() -> runCounted(task, stats), executor);
+            future.whenComplete((result, e) -> limiter.release(System.nanoTime() - start, e == null));
+            return future;
+        } catch (RejectedExecutionException e) {
+            limiter.release(System.nanoTime() - start, false);
+            return CompletableFuture.failedFuture(overloaded(limiter));
+        }
+    }
+
+    public AdaptiveConcurrencyLimiter getLimiter() {
+        return limiter;
+    }
+
+    public AdaptiveConcurrencyLimiter getScanLimiter() {
+        return scanLimiter;
+    }
+
+    private <T> T runCounted(Supplier<T> task, RequestSqlStats stats) {
+        QueryCountHolder.clear();
+        try {
+            return task.get();
+        } finally {
+            if (stats != null) {
+                QueryCount count = QueryCountHolder.getGrandTotal();
+                stats.add(count.getTotal(), count.getTime());
+            }
+            QueryCountHolder.clear();
+        }
+    }
+
+    private RequestSqlStats currentRequestSqlStats() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            return null;
+        }
+        return (RequestSqlStats) attributes.getAttribute(RequestSqlStats.ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+    }
+
+    private OverloadedException overloaded(AdaptiveConcurrencyLimiter limiter) {
+        return new OverloadedException("요청이 많아 처리할 수 없습니다. 잠시 후 다시 시도해 주세요. (limit=" + limiter.getLimit() + ")");
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
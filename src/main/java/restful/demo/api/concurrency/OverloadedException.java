@@ -0,0 +1,11 @@
+package restful.demo.api.concurrency;
+
+/**
+ * 동시 실행 한도를 넘어 요청을 받지 않을 때 - 503 + Retry-After 로 응답
+ */
+public class OverloadedException extends RuntimeException {
+
+    public OverloadedException(String message) {
+        super(message);
+    }
+}
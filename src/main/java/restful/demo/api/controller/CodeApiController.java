@@ -0,0 +1,30 @@
+package restful.demo.api.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RestController;
+import restful.demo.api.code.CodeDictionary;
+
+@RestController
+@RequiredArgsConstructor
+public class CodeApiController {
+
+    private final CodeDictionary codeDictionary;
+
+    /**
+     * 현재 메모리에 올라간 공통코드 사전 (version, loadedAt, size, names)
+     */
+    @GetMapping("/codes")
+    public CodeDictionary.Snapshot codes() {
+        return codeDictionary.current();
+    }
+
+    /**
+     * common_code 를 다시 읽어서 사전 교체 - 읽는 중인 요청은 이전 스냅샷으로 끝까지 처리된다
+     */
+    @PostMapping("/codes/reload")
+    public CodeDictionary.Snapshot reload() {
+        return codeDictionary.reload();
+    }
+}
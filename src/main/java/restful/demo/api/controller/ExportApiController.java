@@ -0,0 +1,60 @@
+package restful.demo.api.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import restful.demo.api.export.ExportFormat;
+import restful.demo.api.export.ExportJob;
+import restful.demo.api.export.MemberExportService;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.net.URI;
+import java.util.Optional;
+
+@RestController
+@RequiredArgsConstructor
+public class ExportApiController {
+
+    private final MemberExportService memberExportService;
+
+    /**
+     * 회원 전체 export 시작 (format=csv|csv.gz|columnar) - 바로 202 와 작업 id 를 반환하고 파일은 백그라운드에서 쓴다
+     * 실행 중이거나 기다리는 작업이 한도를 넘으면 503
+     */
+    @PostMapping("/exports")
+    public ResponseEntity<ExportJob> start(@RequestParam(defaultValue = "csv") String format) {
+        ExportJob job = memberExportService.start(ExportFormat.parse(format));
+        return ResponseEntity.accepted().location(URI.create("/exports/" + job.getId())).body(job);
+    }
+
+    /**
+     * 작업 상태 (status, rows, bytes) - status 가 DONE 이 되면 /exports/{id}/file 로 받는다
+     */
+    @GetMapping("/exports/{id}")
+    public ResponseEntity<ExportJob> status(@PathVariable String id) {
+        return ResponseEntity.of(Optional.ofNullable(memberExportService.find(id)));
+    }
+
+    /**
+     * 완료된 파일 다운로드 (Range 로 이어받기 가능)
+     */
+    @GetMapping("/exports/{id}/file")
+    public void download(@PathVariable String id, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        ExportJob job = memberExportService.find(id);
+        if (job == null) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        if (job.getStatus() != ExportJob.Status.DONE) {
+            response.sendError(HttpServletResponse.SC_CONFLICT, "export 가 끝나지 않았습니다. status=" + job.getStatus());
+            return;
+        }
+        memberExportService.send(job, request, response);
+    }
+}
@@ -2,30 +2,48 @@ package restful.demo.api.controller;
 
 import lombok.RequiredArgsConstructor;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.ServletWebRequest;
+import restful.demo.api.cache.MemberTableVersion;
+import restful.demo.api.code.CodeDictionary;
+import restful.demo.api.concurrency.MemberQueryExecutor;
 import restful.demo.api.entity.Member;
-import restful.demo.api.repository.MemberRepository;
 import restful.demo.api.service.MemberService;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequiredArgsConstructor
 public class HelloApiController {
 
     private final MemberService memberService;
+    private final MemberTableVersion memberTableVersion;
+    private final MemberQueryExecutor memberQueryExecutor;
+    private final CodeDictionary codeDictionary;
 
+    // 변경이 없으면 null 반환 -> 304 Not Modified (DB 조회/직렬화 생략)
+    // DB 조회는 MemberQueryExecutor 에서 비동기로 실행 (요청이 몰리면 503, 전체 조회라 스캔 한도를 따로 씀)
     @GetMapping("/")
-    public List<Member> HelloApi(){
-        List<Member> all = memberService.findAll();
-        System.out.println("all = " + all.toString());
-        return all;
+    public CompletableFuture<List<Member>> HelloApi(ServletWebRequest request){
+        if (memberTableVersion.checkNotModified(request)) {
+            return null;
+        }
+        return memberQueryExecutor.submitScan(memberService::findAll);
     }
 
+    // codeNames=true 면 코드명을 메모리 사전에서 붙여서 반환
     @GetMapping("/memberOne")
-    public Member HelloApiOne(){
-        Member member = memberService.findMemberOne(1L);
-        return member;
+    public CompletableFuture<?> HelloApiOne(@RequestParam(defaultValue = "false") boolean codeNames,
+                                            ServletWebRequest request){
+        if (memberTableVersion.checkNotModified(request)) {
+            return null;
+        }
+        if (codeNames) {
+            return memberQueryExecutor.submit(() -> codeDictionary.describe(memberService.findMemberOne(1L)));
+        }
+        return memberQueryExecutor.submit(() -> memberService.findMemberOne(1L));
     }
 
 
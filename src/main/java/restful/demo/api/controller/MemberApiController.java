@@ -0,0 +1,269 @@
+package restful.demo.api.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PageableDefault;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import restful.demo.api.cache.MemberCache;
+import restful.demo.api.cache.MemberTableVersion;
+import restful.demo.api.code.CodeDictionary;
+import restful.demo.api.concurrency.AdaptiveConcurrencyLimiter;
+import restful.demo.api.concurrency.MemberQueryExecutor;
+import restful.demo.api.dto.ImportResult;
+import restful.demo.api.dto.MemberField;
+import restful.demo.api.dto.MemberProfileChange;
+import restful.demo.api.dto.MemberSearchCondition;
+import restful.demo.api.entity.Member;
+import restful.demo.api.lookup.LookupHit;
+import restful.demo.api.lookup.MemberLookupIndex;
+import restful.demo.api.service.MemberImportService;
+import restful.demo.api.service.MemberService;
+import restful.demo.api.stats.GroupStats;
+import restful.demo.api.stats.MemberStatsSnapshot;
+import restful.demo.api.sync.MemberChanges;
+import restful.demo.api.sync.MemberSyncService;
+import restful.demo.api.writebehind.MemberWriteBehindQueue;
+
+import javax.servlet.http.HttpServletRequest;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+@RestController
+@RequiredArgsConstructor
+public class MemberApiController {
+
+    private static final String SUMMARY = "summary";
+    private static final String TEXT_CSV_VALUE = "text/csv";
+
+    private final MemberService memberService;
+    private final MemberImportService memberImportService;
+    private final MemberTableVersion memberTableVersion;
+    private final MemberStatsSnapshot memberStatsSnapshot;
+    private final MemberLookupIndex memberLookupIndex;
+    private final MemberSyncService memberSyncService;
+    private final MemberQueryExecutor memberQueryExecutor;
+    private final MemberWriteBehindQueue memberWriteBehindQueue;
+    private final CodeDictionary codeDictionary;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * 커서 기반 페이징 조회
+     * 다음 페이지는 응답의 마지막 id 를 lastId 로 넘겨서 요청
+     *
+     * fields 를 주면 해당 컬럼만 select 한다
+     *  - fields=summary : id, stuNo, name, sustCd, shysCd
+     *  - fields=stuNo,name,address.city : 원하는 필드 조합
+     *
+     * codeNames=true 면 각 회원에 코드명(codeNames)을 붙인다 - 메모리 사전에서 채우므로 추가 쿼리 없음 (fields 와 같이 쓸 수 없음)
+     */
+    @GetMapping("/members")
+    public CompletableFuture<List<?>> members(@RequestParam(defaultValue = "0") long lastId,
+                                              @RequestParam(defaultValue = "100") int size,
+                                              @RequestParam(required = false) String fields,
+                                              @RequestParam(defaultValue = "false") boolean codeNames,
+                                              ServletWebRequest request) {
+        if (codeNames && fields != null) {
+            throw new IllegalArgumentException("codeNames 는 fields 와 같이 쓸 수 없습니다.");
+        }
+        if (memberTableVersion.checkNotModified(request)) {
+            return null;
+        }
+        if (codeNames) {
+            return memberQueryExecutor.submit(() -> codeDictionary.describe(memberService.findPageAfter(lastId, size)));
+        }
+        if (fields == null) {
+            return memberQueryExecutor.submit(() -> memberService.findPageAfter(lastId, size));
+        }
+        if (SUMMARY.equals(fields)) {
+            return memberQueryExecutor.submit(() -> memberService.findSummaryPageAfter(lastId, size));
+        }
+        List<MemberField> selected = MemberField.parse(fields);
+        return memberQueryExecutor.submit(() -> memberService.findFieldsPageAfter(selected, lastId, size));
+    }
+
+    /**
+     * id 목록으로 조회 (/members?ids=1,2,3) - IN 쿼리 한 번으로 처리, 요청한 순서대로 반환
+     */
+    @GetMapping(value = "/members", params = "ids")
+    public CompletableFuture<List<Member>> membersByIds(@RequestParam List<Long> ids, ServletWebRequest request) {
+        if (memberTableVersion.checkNotModified(request)) {
+            return null;
+        }
+        return memberQueryExecutor.submit(() -> memberService.findMembers(ids));
+    }
+
+    /**
+     * 학번, 입학년도, 학과/전공/학년/학기/학적상태 코드로 검색 (page, size, sort 로 페이징)
+     */
+    @GetMapping("/members/search")
+    public CompletableFuture<Page<Member>> search(MemberSearchCondition condition,
+                                                  @PageableDefault(size = 20, sort = "id") Pageable pageable,
+                                                  ServletWebRequest request) {
+        if (memberTableVersion.checkNotModified(request)) {
+            return null;
+        }
+        return memberQueryExecutor.submit(() -> memberService.search(condition, pageable));
+    }
+
+    /**
+     * 학번/이름/이메일 자동완성 (메모리 n-gram 색인에서 찾음, DB 조회 없음)
+     *  - q=김민 : 이름 앞부분, q=ㄱㅁㅅ : 이름 초성, q=2021 : 학번 앞부분, q=naver : 이메일 일부
+     */
+    @GetMapping("/members/lookup")
+    public List<LookupHit> lookup(@RequestParam String q, @RequestParam(defaultValue = "10") int limit) {
+        return memberLookupIndex.lookup(q, limit);
+    }
+
+    /**
+     * 전체 회원을 NDJSON(한 줄에 회원 한 명)으로 스트리밍
+     * DB 커서에서 읽는 즉시 응답에 쓰기 때문에 테이블 크기와 상관없이 메모리 사용량이 일정하다
+     */
+    @GetMapping(value = "/members/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamMembers() {
+        StreamingResponseBody body = out -> {
+            try (SequenceWriter writer = objectMapper.writer()
+                    .withRootValueSeparator("\n")
+                    .writeValues(out)) {
+                memberService.streamAll(member -> {
+                    try {
+                        writer.write(member);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                writer.flush();
+                out.write('\n');
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
+    /**
+     * 대량 등록 - Content-Type 이 application/x-ndjson 이면 한 줄에 회원 하나, text/csv 면 헤더가 있는 CSV
+     * 완료 후 처리 건수와 초당 처리 건수(rowsPerSecond)를 반환
+     */
+    @PostMapping(value = "/members/import", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public ImportResult importNdjson(HttpServletRequest request,
+                                     @RequestParam(required = false) Integer batchSize) throws IOException {
+        return memberImportService.importNdjson(request.getInputStream(), batchSize);
+    }
+
+    @PostMapping(value = "/members/import", consumes = TEXT_CSV_VALUE)
+    public ImportResult importCsv(HttpServletRequest request,
+                                  @RequestParam(required = false) Integer batchSize) throws IOException {
+        return memberImportService.importCsv(request.getInputStream(), batchSize);
+    }
+
+    /**
+     * 변경분 동기화 - since 토큰 이후 등록/수정된 회원과 삭제된 회원 id, 다음 토큰을 반환
+     * 처음에는 since 없이 요청하고, 이후에는 응답의 next 를 since 로 넘긴다
+     */
+    @GetMapping("/members/changes")
+    public CompletableFuture<MemberChanges> changes(@RequestParam(required = false) String since,
+                                                    @RequestParam(defaultValue = "500") int size) {
+        return memberQueryExecutor.submit(() -> memberSyncService.findChanges(since, size));
+    }
+
+    /**
+     * 주소/이메일 변경 (write-behind) - 큐에 넣고 바로 202
+     * wait=true 면 배치로 커밋될 때까지 기다렸다가 204 (없는 회원이면 400)
+     */
+    @PatchMapping("/members/{id}/profile")
+    public CompletableFuture<ResponseEntity<Void>> changeProfile(@PathVariable long id,
+                                                                 @RequestBody MemberProfileChange change,
+                                                                 @RequestParam(defaultValue = "false") boolean wait) {
+        CompletableFuture<Void> ack = memberWriteBehindQueue.enqueue(id, change);
+        if (!wait) {
+            return CompletableFuture.completedFuture(ResponseEntity.accepted().build());
+        }
+        return ack.thenApply(done -> ResponseEntity.noContent().build());
+    }
+
+    /**
+     * 주소/이메일 일괄 변경 - 각 항목의 id 로 대상 지정, 같은 회원이 여러 번 나오면 마지막 값으로 합쳐진다
+     */
+    @PatchMapping("/members/profiles")
+    public CompletableFuture<ResponseEntity<Map<String, Object>>> changeProfiles(@RequestBody List<MemberProfileChange> changes,
+                                                                                 @RequestParam(defaultValue = "false") boolean wait) {
+        List<CompletableFuture<Void>> acks = new ArrayList<>(changes.size());
+        for (MemberProfileChange change : changes) {
+            if (change.getId() == null) {
+                throw new IllegalArgumentException("일괄 변경에는 id 가 필요합니다.");
+            }
+            acks.add(memberWriteBehindQueue.enqueue(change.getId(), change));
+        }
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("queued", changes.size());
+        if (!wait) {
+            return CompletableFuture.completedFuture(ResponseEntity.accepted().body(body));
+        }
+        return CompletableFuture.allOf(acks.toArray(new CompletableFuture[0]))
+                .thenApply(done -> ResponseEntity.ok(body));
+    }
+
+    /**
+     * write-behind 큐를 지금 반영 (반영한 회원 수)
+     */
+    @PostMapping("/members/profiles/flush")
+    public Map<String, Object> flushProfiles() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("flushed", memberWriteBehindQueue.flush());
+        result.put("queue", memberWriteBehindQueue.depth());
+        return result;
+    }
+
+    @DeleteMapping("/members/{id}")
+    public ResponseEntity<Void> delete(@PathVariable long id) {
+        memberService.delete(id);
+        return ResponseEntity.noContent().build();
+    }
+
+    /**
+     * 학과/전공/학년/학적상태/성별 별 학생 수와 평균 학기수 (메모리 스냅샷에서 집계, DB 조회 없음)
+     */
+    @GetMapping("/members/stats")
+    public List<GroupStats> stats(@RequestParam String groupBy) {
+        return memberStatsSnapshot.groupBy(groupBy);
+    }
+
+    @GetMapping("/members/limiter")
+    public Map<String, Object> limiter() {
+        Map<String, Object> state = limiterState(memberQueryExecutor.getLimiter());
+        state.put("scan", limiterState(memberQueryExecutor.getScanLimiter()));
+        return state;
+    }
+
+    private Map<String, Object> limiterState(AdaptiveConcurrencyLimiter limiter) {
+        Map<String, Object> state = new LinkedHashMap<>();
+        state.put("limit", limiter.getLimit());
+        state.put("inFlight", limiter.getInFlight());
+        state.put("rejected", limiter.getRejected());
+        return state;
+    }
+
+    @GetMapping("/members/cache/stats")
+    public MemberCache.Stats cacheStats() {
+        return memberService.cacheStats();
+    }
+}
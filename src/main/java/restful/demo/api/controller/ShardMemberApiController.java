@@ -0,0 +1,26 @@
+package restful.demo.api.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+import restful.demo.api.shard.ShardedMemberRepository;
+
+import java.util.Map;
+
+/**
+ * 입학년도 샤드 상태 (member.shard.enabled=true 일 때만)
+ * 회원 조회/변경은 /members 가 그대로 샤드로 라우팅한다
+ */
+@RestController
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "member.shard.enabled", havingValue = "true")
+public class ShardMemberApiController {
+
+    private final ShardedMemberRepository shardedMemberRepository;
+
+    @GetMapping("/shards/stats")
+    public Map<String, Long> stats() {
+        return shardedMemberRepository.countByShard();
+    }
+}
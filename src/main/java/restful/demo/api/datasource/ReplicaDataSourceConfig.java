@@ -0,0 +1,57 @@
+package restful.demo.api.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * member.datasource.routing.enabled=true 일 때 spring.datasource 대신 primary/replica 라우팅 DataSource 를 사용한다
+ */
+@Configuration
+@ConditionalOnProperty(name = "member.datasource.routing.enabled", havingValue = "true")
+@EnableConfigurationProperties(ReplicaDataSourceProperties.class)
+public class ReplicaDataSourceConfig {
+
+    @Bean
+    public ReplicaRoutingDataSource replicaRoutingDataSource(ReplicaDataSourceProperties properties) {
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        for (int i = 0; i < properties.getReplicas().size(); i++) {
+            HikariDataSource replica = hikari("replica-" + i, properties.getReplicas().get(i), true);
+            // 기본 30초를 기다리면 health check 가 제외하기 전까지 readOnly 요청이 그만큼 멈춘다
+            replica.setConnectionTimeout(properties.getReplicaConnectionTimeout().toMillis());
+            replicas.put("replica-" + i, replica);
+        }
+        ReplicaRoutingDataSource routing =
+                new ReplicaRoutingDataSource(hikari(ReplicaRoutingDataSource.PRIMARY, properties.getPrimary(), false), replicas);
+        routing.startHealthCheck(properties.getHealthCheckInterval());
+        return routing;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource replicaRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(replicaRoutingDataSource);
+    }
+
+    private HikariDataSource hikari(String name, ReplicaDataSourceProperties.Node node, boolean readOnly) {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setPoolName(name);
+        dataSource.setJdbcUrl(node.getUrl());
+        dataSource.setUsername(node.getUsername());
+        dataSource.setPassword(node.getPassword());
+        if (node.getDriverClassName() != null) {
+            dataSource.setDriverClassName(node.getDriverClassName());
+        }
+        dataSource.setMaximumPoolSize(node.getMaximumPoolSize());
+        dataSource.setReadOnly(readOnly);
+        return dataSource;
+    }
+}
@@ -0,0 +1,33 @@
+package restful.demo.api.datasource;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * member.datasource.* - 쓰기용 primary 와 읽기용 replica 목록
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "member.datasource")
+public class ReplicaDataSourceProperties {
+
+    private Node primary = new Node();
+    private List<Node> replicas = new ArrayList<>();
+    private Duration healthCheckInterval = Duration.ofSeconds(5);
+    private Duration replicaConnectionTimeout = Duration.ofSeconds(1); // 죽은 replica 에서 커넥션을 오래 기다리지 않고 primary 로 넘어가게
+
+    @Getter
+    @Setter
+    public static class Node {
+        private String url;
+        private String username;
+        private String password;
+        private String driverClassName;
+        private int maximumPoolSize = 10;
+    }
+}
@@ -0,0 +1,142 @@
+package restful.demo.api.datasource;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * readOnly 트랜잭션은 replica 로, 나머지는 primary 로 보낸다
+ *  - replica 는 정상(health check 통과)인 것들 중에서 라운드로빈
+ *  - 정상 replica 가 없거나 replica 커넥션 획득에 실패하면 primary 로 대체
+ *
+ * 트랜잭션 시작 시점에는 readOnly 여부가 아직 TransactionSynchronizationManager 에 없으므로
+ * 반드시 LazyConnectionDataSourceProxy 로 감싸서 첫 쿼리 시점에 커넥션을 얻도록 해야 한다
+ */
+@Slf4j
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource implements DisposableBean {
+
+    public static final String PRIMARY = "primary";
+
+    private final DataSource primary;
+    private final Map<String, DataSource> replicas;
+    private final List<String> replicaKeys;
+    private final Set<String> unhealthy = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger next = new AtomicInteger();
+    private ScheduledExecutorService healthChecker;
+
+    public ReplicaRoutingDataSource(DataSource primary, Map<String, DataSource> replicas) {
+        this.primary = primary;
+        this.replicas = replicas;
+        this.replicaKeys = new ArrayList<>(replicas.keySet());
+        Map<Object, Object> targets = new HashMap<>(replicas);
+        targets.put(PRIMARY, primary);
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return chooseReplica();
+        }
+        return PRIMARY;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        Object key = determineCurrentLookupKey();
+        if (PRIMARY.equals(key)) {
+            return primary.getConnection();
+        }
+        try {
+            return replicas.get(key).getConnection();
+        } catch (SQLException e) {
+            markDown((String) key, e);
+            return primary.getConnection();
+        }
+    }
+
+    String chooseReplica() {
+        int size = replicaKeys.size();
+        for (int i = 0; i < size; i++) {
+            String key = replicaKeys.get(Math.floorMod(next.getAndIncrement(), size));
+            if (!unhealthy.contains(key)) {
+                return key;
+            }
+        }
+        return PRIMARY;
+    }
+
+    /**
+     * replica 마다 커넥션을 얻어 isValid 로 확인 - 실패하면 제외, 다시 성공하면 복귀
+     */
+    public void checkHealth() {
+        replicas.forEach((key, dataSource) -> {
+            try (Connection connection = dataSource.getConnection()) {
+                if (!connection.isValid(1)) {
+                    throw new SQLException("connection is not valid");
+                }
+                if (unhealthy.remove(key)) {
+                    log.info("replica {} is back", key);
+                }
+            } catch (SQLException e) {
+                markDown(key, e);
+            }
+        });
+    }
+
+    public void startHealthCheck(Duration interval) {
+        healthChecker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "replica-health-check");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long millis = interval.toMillis();
+        healthChecker.scheduleWithFixedDelay(this::checkHealth, millis, millis, TimeUnit.MILLISECONDS);
+    }
+
+    public Set<String> getUnhealthyReplicas() {
+        return Set.copyOf(unhealthy);
+    }
+
+    private void markDown(String key, Exception e) {
+        if (unhealthy.add(key)) {
+            log.warn("replica {} is down, routing reads to primary: {}", key, e.getMessage());
+        }
+    }
+
+    @Override
+    public void destroy() throws IOException {
+        if (healthChecker != null) {
+            healthChecker.shutdownNow();
+        }
+        for (DataSource dataSource : replicas.values()) {
+            close(dataSource);
+        }
+        close(primary);
+    }
+
+    private void close(DataSource dataSource) throws IOException {
+        if (dataSource instanceof Closeable) {
+            ((Closeable) dataSource).close();
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package restful.demo.api.dto;
+
+import lombok.Getter;
+
+@Getter
+public class ImportResult {
+
+    private final long rows;
+    private final long batches;
+    private final long elapsedMillis;
+    private final long rowsPerSecond;
+
+    public ImportResult(long rows, long batches, long elapsedMillis) {
+        this.rows = rows;
+        this.batches = batches;
+        this.elapsedMillis = elapsedMillis;
+        this.rowsPerSecond = elapsedMillis == 0 ? rows * 1000 : rows * 1000 / elapsedMillis;
+    }
+}
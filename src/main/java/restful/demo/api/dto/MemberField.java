@@ -0,0 +1,75 @@
+package restful.demo.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import javax.persistence.criteria.Path;
+import javax.persistence.criteria.Root;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * ?fields= 로 선택할 수 있는 Member 필드 목록
+ */
+@Getter
+@AllArgsConstructor
+public enum MemberField {
+
+    ID("id"),
+    STU_NO("stuNo"),
+    ENTER_YEAR("enterYear"),
+    NAME("name"),
+    BIRTH_MD("birthMd"),
+    SUST_CD("sustCd"),
+    MJR_CD("mjrCd"),
+    SHYS_CD("shysCd"),
+    SHTM_CD("shtmCd"),
+    FIN_SCHREG_DIV_CD("finSchregDivCd"),
+    CPTN_SHTM_CNT("cptnShtmCnt"),
+    EMAIL("email"),
+    GENDER("gender"),
+    ADDRESS_CITY("address.city"),
+    ADDRESS_STREET("address.street"),
+    ADDRESS_ZIPCODE("address.zipcode");
+
+    private static final Map<String, MemberField> BY_NAME = Arrays.stream(values())
+            .collect(Collectors.toMap(MemberField::getName, Function.identity()));
+
+    private final String name;
+
+    public <T> Path<T> path(Root<?> root) {
+        Path<T> path = null;
+        for (String attribute : name.split("\\.")) {
+            path = path == null ? root.get(attribute) : path.get(attribute);
+        }
+        return path;
+    }
+
+    /**
+     * "stuNo,name,sustCd" 형태의 문자열을 필드 목록으로 변환 (순서 유지, 중복 제거)
+     */
+    public static List<MemberField> parse(String fields) {
+        Set<MemberField> parsed = new LinkedHashSet<>();
+        for (String name : fields.split(",")) {
+            String trimmed = name.trim();
+            if (trimmed.isEmpty()) {
+                continue;
+            }
+            MemberField field = BY_NAME.get(trimmed);
+            if (field == null) {
+                throw new IllegalArgumentException("선택할 수 없는 필드입니다. field=" + trimmed);
+            }
+            parsed.add(field);
+        }
+        if (parsed.isEmpty()) {
+            throw new IllegalArgumentException("fields 가 비어 있습니다.");
+        }
+        return new ArrayList<>(parsed);
+    }
+}
@@ -0,0 +1,64 @@
+package restful.demo.api.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import restful.demo.api.entity.Address;
+import restful.demo.api.entity.Gender;
+import restful.demo.api.entity.Member;
+
+/**
+ * 대량 등록 시 한 줄(NDJSON 한 줄, CSV 한 행)에 해당하는 입력값
+ * 주소는 CSV 에서는 city/street/zipcode 컬럼으로, NDJSON 에서는 address 객체로도 받을 수 있다
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class MemberImportRow {
+
+    private String stuNo;
+    private String enterYear;
+    private String name;
+    private String birthMd;
+    private String sustCd;
+    private String mjrCd;
+    private String shysCd;
+    private String shtmCd;
+    private String finSchregDivCd;
+    private Integer cptnShtmCnt;
+    private String email;
+    private Gender gender;
+    private String city;
+    private String street;
+    private String zipcode;
+
+    public void setAddress(Address address) {
+        if (address != null) {
+            this.city = address.getCity();
+            this.street = address.getStreet();
+            this.zipcode = address.getZipcode();
+        }
+    }
+
+    public Member toEntity() {
+        Address address = city == null && street == null && zipcode == null
+                ? null : new Address(city, street, zipcode);
+        return Member.builder()
+                .stuNo(stuNo)
+                .enterYear(enterYear)
+                .name(name)
+                .birthMd(birthMd)
+                .sustCd(sustCd)
+                .mjrCd(mjrCd)
+                .shysCd(shysCd)
+                .shtmCd(shtmCd)
+                .finSchregDivCd(finSchregDivCd)
+                .cptnShtmCnt(cptnShtmCnt)
+                .email(email)
+                .gender(gender)
+                .address(address)
+                .build();
+    }
+}
@@ -0,0 +1,39 @@
+package restful.demo.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * 주소/이메일 변경 요청 - null 인 필드는 바꾸지 않는다 (우편번호만 고치는 경우 등)
+ * 일괄 변경(PATCH /members/profiles)에서는 id 로 대상 회원을 지정한다
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class MemberProfileChange {
+
+    private Long id;
+    private String city;
+    private String street;
+    private String zipcode;
+    private String email;
+
+    /**
+     * 같은 회원에 대한 이전 변경 위에 이번 변경을 덮어쓴 결과
+     */
+    public MemberProfileChange mergeInto(MemberProfileChange previous) {
+        return new MemberProfileChange(
+                id != null ? id : previous.id,
+                city != null ? city : previous.city,
+                street != null ? street : previous.street,
+                zipcode != null ? zipcode : previous.zipcode,
+                email != null ? email : previous.email);
+    }
+
+    public boolean isEmpty() {
+        return city == null && street == null && zipcode == null && email == null;
+    }
+}
@@ -0,0 +1,23 @@
+package restful.demo.api.dto;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * /members/search 검색 조건 - 값이 있는 조건만 and 로 묶는다
+ * enterYear -> sustCd -> mjrCd 는 복합 인덱스 순서와 같으므로 앞쪽 조건부터 채울수록 인덱스를 잘 탄다
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+public class MemberSearchCondition {
+
+    private String stuNo;
+    private String enterYear;
+    private String sustCd;
+    private String mjrCd;
+    private String shysCd;
+    private String shtmCd;
+    private String finSchregDivCd;
+}
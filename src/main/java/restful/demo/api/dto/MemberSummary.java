@@ -0,0 +1,18 @@
+package restful.demo.api.dto;
+
+/**
+ * 목록 화면에서 주로 쓰는 컬럼만 조회하는 인터페이스 프로젝션
+ * 엔티티가 아니므로 영속성 컨텍스트에 올라가지 않는다 (스냅샷, dirty checking 없음)
+ */
+public interface MemberSummary {
+
+    Long getId();
+
+    String getStuNo();
+
+    String getName();
+
+    String getSustCd();
+
+    String getShysCd();
+}
@@ -0,0 +1,22 @@
+package restful.demo.api.dto;
+
+import com.fasterxml.jackson.annotation.JsonUnwrapped;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import restful.demo.api.entity.Member;
+
+import java.util.Map;
+
+/**
+ * codeNames=true 응답 - 회원 필드는 그대로 펼치고 codeNames 에 코드 컬럼별 코드명을 붙인다
+ *  { "id": 1, "sustCd": "SUSTCD001", ..., "codeNames": { "sustCd": "컴퓨터공학과", ... } }
+ */
+@Getter
+@AllArgsConstructor
+public class MemberWithCodeNames {
+
+    @JsonUnwrapped
+    private final Member member;
+
+    private final Map<String, String> codeNames;
+}
@@ -0,0 +1,28 @@
+package restful.demo.api.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.function.Function;
+
+/**
+ * 공통코드 그룹 - Member 의 코드 컬럼과 1:1
+ */
+@Getter
+@AllArgsConstructor
+public enum CodeGroup {
+
+    SUST_CD("sustCd", "학과", Member::getSustCd),
+    MJR_CD("mjrCd", "전공", Member::getMjrCd),
+    SHYS_CD("shysCd", "학년", Member::getShysCd),
+    SHTM_CD("shtmCd", "학기", Member::getShtmCd),
+    FIN_SCHREG_DIV_CD("finSchregDivCd", "학적상태", Member::getFinSchregDivCd);
+
+    private String field;
+    private String groupName;
+    private Function<Member, String> extractor;
+
+    public String codeOf(Member member) {
+        return extractor.apply(member);
+    }
+}
@@ -0,0 +1,39 @@
+package restful.demo.api.entity;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.Entity;
+import javax.persistence.EnumType;
+import javax.persistence.Enumerated;
+import javax.persistence.Id;
+import javax.persistence.IdClass;
+
+/**
+ * 공통코드 (학과/전공/학년/학기/학적상태 코드명)
+ * 조회 시에는 DB 를 읽지 않고 기동 시 적재한 CodeDictionary 를 사용한다
+ */
+@Entity
+@Getter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@IdClass(CommonCodeId.class)
+public class CommonCode {
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    private CodeGroup codeGroup;
+
+    @Id
+    private String code;
+
+    private String codeName;
+
+    private int sortOrder;
+
+    private boolean used; // false 면 사전에서 제외
+}
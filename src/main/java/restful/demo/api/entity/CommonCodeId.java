@@ -0,0 +1,21 @@
+package restful.demo.api.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+/**
+ * CommonCode 복합키 (codeGroup, code)
+ */
+@Getter
+@EqualsAndHashCode
+@AllArgsConstructor
+@NoArgsConstructor
+public class CommonCodeId implements Serializable {
+
+    private CodeGroup codeGroup;
+    private String code;
+}
@@ -1,18 +1,32 @@
 package restful.demo.api.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.*;
+import restful.demo.api.event.MemberEntityListener;
 
 import javax.persistence.*;
 
 @Entity
+@EntityListeners(MemberEntityListener.class)
 @Getter
 @AllArgsConstructor
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
 @Builder
+@Table(
+        uniqueConstraints = @UniqueConstraint(name = "uk_member_stu_no", columnNames = "stuNo"),
+        indexes = {
+                @Index(name = "idx_member_enter_year_sust_mjr", columnList = "enterYear, sustCd, mjrCd"),
+                @Index(name = "idx_member_change_version", columnList = "changeVersion, memberId")})
+@SequenceGenerator(
+        name = "member_seq_generator",
+        sequenceName = "member_seq",
+        allocationSize = Member.ID_ALLOCATION_SIZE) // IDENTITY 는 insert 배치가 안되므로 시퀀스(pooled)로 id 를 미리 할당
 public class Member {
 
+    public static final int ID_ALLOCATION_SIZE = 100; // MemberSequenceAligner 가 member_seq 를 이만큼 여유를 두고 맞춘다
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "member_seq_generator")
     @Column(name = "memberId")
     private Long id;
 
@@ -44,5 +58,30 @@ public class Member {
     @Embedded
     private Address address; // 주소 임베디드 타입
 
+    private Long changedAt; // 마지막 변경시각(epoch millis)
+
+    @JsonIgnore
+    private Long changeVersion; // 마지막으로 바꾼 트랜잭션의 회원 변경 버전(member_version) - 변경분 동기화(/members/changes) 기준
+
+    @PrePersist
+    @PreUpdate
+    void touch() {
+        this.changedAt = System.currentTimeMillis();
+    }
+
+    /**
+     * 쓰기 직전에 MemberEntityListener 가 현재 트랜잭션의 버전을 넣는다
+     */
+    public void stampVersion(long version) {
+        this.changeVersion = version;
+    }
+
+    public void changeAddress(Address address) {
+        if (this.address == null) {
+            this.address = new Address(address.getCity(), address.getStreet(), address.getZipcode());
+            return;
+        }
+        this.address.changeAddress(address);
+    }
 
 }/////
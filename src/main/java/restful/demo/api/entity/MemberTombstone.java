@@ -0,0 +1,31 @@
+package restful.demo.api.entity;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.Table;
+
+/**
+ * 삭제된 회원 기록 - 변경분 동기화 시 삭제 건을 내려주기 위해 남긴다
+ */
+@Entity
+@Getter
+@AllArgsConstructor
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@Table(indexes = @Index(name = "idx_member_tombstone_version", columnList = "version"))
+public class MemberTombstone {
+
+    @Id
+    private Long memberId;
+
+    private String stuNo;
+
+    private Long deletedAt; // 삭제시각(epoch millis)
+
+    private Long version; // 삭제한 트랜잭션의 회원 변경 버전 - 변경분 동기화 기준
+}
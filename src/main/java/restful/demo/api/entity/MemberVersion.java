@@ -0,0 +1,23 @@
+package restful.demo.api.entity;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.Entity;
+import javax.persistence.Id;
+
+/**
+ * 회원 변경 버전 한 행(id = 1) - 회원을 바꾸는 트랜잭션마다 MemberVersionCounter 가 1 올린다
+ * 테이블은 ddl-auto(기동, migrateSchema)가 만들고 첫 행은 MemberVersionCounter 가 넣는다
+ */
+@Entity
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+public class MemberVersion {
+
+    @Id
+    private Integer id;
+
+    private Long version;
+}
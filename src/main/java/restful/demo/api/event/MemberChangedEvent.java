@@ -0,0 +1,25 @@
+package restful.demo.api.event;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import restful.demo.api.entity.Member;
+
+/**
+ * Member 가 저장/수정/삭제 되었을 때 발행되는 이벤트
+ * 캐시, 스냅샷 처럼 Member 를 메모리에 들고 있는 컴포넌트들이 이 이벤트로 갱신된다
+ */
+@Getter
+@RequiredArgsConstructor
+public class MemberChangedEvent {
+
+    public enum Type {
+        SAVED, DELETED
+    }
+
+    private final Type type;
+    private final Member member;
+
+    public Long getMemberId() {
+        return member.getId();
+    }
+}
@@ -0,0 +1,54 @@
+package restful.demo.api.event;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+import restful.demo.api.entity.Member;
+import restful.demo.api.repository.MemberVersionCounter;
+
+import javax.persistence.PostPersist;
+import javax.persistence.PostRemove;
+import javax.persistence.PostUpdate;
+import javax.persistence.PrePersist;
+import javax.persistence.PreRemove;
+import javax.persistence.PreUpdate;
+
+/**
+ * JPA 엔티티 콜백을 스프링 이벤트로 바꿔준다
+ * MemberService 를 거치지 않고 dirty checking 으로 반영되는 변경(Address.changeAddress 등)도 여기서 잡힌다
+ * (스프링 부트가 hibernate 에 SpringBeanContainer 를 등록하므로 엔티티 리스너도 빈으로 주입받을 수 있다)
+ * 쓰기 직전에는 같은 트랜잭션에서 회원 변경 버전(member_version)을 올리고 등록/수정되는 회원에 그 버전을 넣는다
+ */
+@Component
+public class MemberEntityListener {
+
+    private final ApplicationEventPublisher publisher;
+    private final ObjectProvider<MemberVersionCounter> memberVersionCounter; // EntityManagerFactory 를 만드는 중에 리스너가 생기므로 쓸 때 꺼낸다
+
+    public MemberEntityListener(ApplicationEventPublisher publisher, ObjectProvider<MemberVersionCounter> memberVersionCounter) {
+        this.publisher = publisher;
+        this.memberVersionCounter = memberVersionCounter;
+    }
+
+    @PrePersist
+    @PreUpdate
+    public void saving(Member member) {
+        member.stampVersion(memberVersionCounter.getObject().next());
+    }
+
+    @PreRemove
+    public void removing(Member member) {
+        memberVersionCounter.getObject().next(); // tombstone 이 같은 트랜잭션에서 이 버전을 받는다
+    }
+
+    @PostPersist
+    @PostUpdate
+    public void saved(Member member) {
+        publisher.publishEvent(new MemberChangedEvent(MemberChangedEvent.Type.SAVED, member));
+    }
+
+    @PostRemove
+    public void removed(Member member) {
+        publisher.publishEvent(new MemberChangedEvent(MemberChangedEvent.Type.DELETED, member));
+    }
+}
@@ -0,0 +1,37 @@
+package restful.demo.api.exception;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import restful.demo.api.concurrency.OverloadedException;
+
+import java.util.Collections;
+import java.util.Map;
+
+@RestControllerAdvice
+public class ApiExceptionHandler {
+
+    private final long retryAfterSeconds;
+
+    public ApiExceptionHandler(@Value("${member.limiter.retry-after-seconds:1}") long retryAfterSeconds) {
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    // 잘못된 파라미터, 존재하지 않는 회원 등
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<Map<String, String>> badRequest(IllegalArgumentException e) {
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                .body(Collections.singletonMap("message", e.getMessage()));
+    }
+
+    // 동시 실행 한도 초과 - 대기열에 쌓지 않고 바로 돌려보낸다
+    @ExceptionHandler(OverloadedException.class)
+    public ResponseEntity<Map<String, String>> overloaded(OverloadedException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds))
+                .body(Collections.singletonMap("message", e.getMessage()));
+    }
+}
@@ -0,0 +1,32 @@
+package restful.demo.api.export;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.Arrays;
+
+/**
+ * export 파일 형식
+ *  - csv      : 대량 등록(/members/import)에 그대로 다시 넣을 수 있는 헤더 포함 CSV
+ *  - csv.gz   : gzip 으로 압축한 CSV
+ *  - columnar : 청크마다 컬럼형 + 코드 사전 인코딩 블록을 Smile 로 이어 쓰고 gzip 으로 압축
+ */
+@Getter
+@AllArgsConstructor
+public enum ExportFormat {
+
+    CSV("csv", ".csv", false),
+    CSV_GZIP("csv.gz", ".csv.gz", true),
+    COLUMNAR("columnar", ".columnar.smile.gz", true);
+
+    private String code;
+    private String extension;
+    private boolean compressed;
+
+    public static ExportFormat parse(String code) {
+        return Arrays.stream(values())
+                .filter(format -> format.code.equalsIgnoreCase(code))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("지원하지 않는 export 형식입니다. format=" + code));
+    }
+}
@@ -0,0 +1,55 @@
+package restful.demo.api.export;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.Getter;
+
+import java.nio.file.Path;
+
+/**
+ * export 작업 상태 - 작업 스레드가 갱신하고 /exports/{id} 에서 읽는다
+ */
+@Getter
+public class ExportJob {
+
+    public enum Status {RUNNING, DONE, FAILED}
+
+    private final String id;
+    private final ExportFormat format;
+    private final long createdAt; // epoch millis
+
+    private volatile Status status = Status.RUNNING;
+    private volatile long rows;
+    private volatile long bytes;
+    private volatile Long finishedAt;
+    private volatile String error;
+
+    @JsonIgnore
+    private volatile Path file;
+
+    ExportJob(String id, ExportFormat format) {
+        this.id = id;
+        this.format = format;
+        this.createdAt = System.currentTimeMillis();
+    }
+
+    public String getFilename() {
+        return "members-" + id + format.getExtension();
+    }
+
+    void progress(int chunkRows) {
+        rows += chunkRows; // 작업 스레드 하나만 쓴다
+    }
+
+    void done(Path file, long bytes) {
+        this.file = file;
+        this.bytes = bytes;
+        this.finishedAt = System.currentTimeMillis();
+        this.status = Status.DONE;
+    }
+
+    void failed(String error) {
+        this.error = error;
+        this.finishedAt = System.currentTimeMillis();
+        this.status = Status.FAILED;
+    }
+}
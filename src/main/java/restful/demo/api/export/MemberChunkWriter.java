@@ -0,0 +1,113 @@
+package restful.demo.api.export;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import restful.demo.api.codec.MemberColumnarEncoder;
+import restful.demo.api.entity.Address;
+import restful.demo.api.entity.Member;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * id 순으로 읽은 회원 청크를 export 파일에 이어 쓴다
+ */
+interface MemberChunkWriter extends Closeable {
+
+    void write(List<Member> chunk) throws IOException;
+
+    static MemberChunkWriter open(ExportFormat format, OutputStream out, ObjectMapper smileMapper) throws IOException {
+        return format == ExportFormat.COLUMNAR ? new Columnar(out, smileMapper) : new Csv(out);
+    }
+
+    /**
+     * 헤더명은 MemberImportRow 프로퍼티명과 같다 (id, changedAt 은 등록 시 무시됨)
+     */
+    class Csv implements MemberChunkWriter {
+
+        private static final String HEADER = "id,stuNo,enterYear,name,birthMd,sustCd,mjrCd,shysCd,shtmCd,finSchregDivCd,"
+                + "cptnShtmCnt,email,gender,city,street,zipcode,changedAt";
+
+        private final Writer writer;
+
+        Csv(OutputStream out) throws IOException {
+            this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+            writer.write(HEADER);
+            writer.write('\n');
+        }
+
+        @Override
+        public void write(List<Member> chunk) throws IOException {
+            for (Member member : chunk) {
+                Address address = member.getAddress();
+                field(member.getId(), true);
+                field(member.getStuNo(), true);
+                field(member.getEnterYear(), true);
+                field(member.getName(), true);
+                field(member.getBirthMd(), true);
+                field(member.getSustCd(), true);
+                field(member.getMjrCd(), true);
+                field(member.getShysCd(), true);
+                field(member.getShtmCd(), true);
+                field(member.getFinSchregDivCd(), true);
+                field(member.getCptnShtmCnt(), true);
+                field(member.getEmail(), true);
+                field(member.getGender(), true);
+                field(address == null ? null : address.getCity(), true);
+                field(address == null ? null : address.getStreet(), true);
+                field(address == null ? null : address.getZipcode(), true);
+                field(member.getChangedAt(), false);
+                writer.write('\n');
+            }
+        }
+
+        private void field(Object value, boolean separator) throws IOException {
+            if (value != null) {
+                String text = value instanceof Enum ? ((Enum<?>) value).name() : value.toString();
+                if (text.indexOf(',') >= 0 || text.indexOf('"') >= 0 || text.indexOf('\n') >= 0 || text.indexOf('\r') >= 0) {
+                    writer.write('"');
+                    writer.write(text.replace("\"", "\"\""));
+                    writer.write('"');
+                } else {
+                    writer.write(text);
+                }
+            }
+            if (separator) {
+                writer.write(',');
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            writer.close();
+        }
+    }
+
+    /**
+     * 청크 하나가 컬럼형 블록 하나 - Smile 루트 값을 연속으로 쓴다 (읽을 때는 readValues 로 블록 단위로 읽음)
+     */
+    class Columnar implements MemberChunkWriter {
+
+        private final JsonGenerator generator;
+
+        Columnar(OutputStream out, ObjectMapper smileMapper) throws IOException {
+            this.generator = smileMapper.getFactory().createGenerator(out);
+        }
+
+        @Override
+        public void write(List<Member> chunk) throws IOException {
+            MemberColumnarEncoder.write(chunk, generator);
+        }
+
+        @Override
+        public void close() throws IOException {
+            generator.close();
+        }
+    }
+}
@@ -0,0 +1,178 @@
+package restful.demo.api.export;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import restful.demo.api.concurrency.OverloadedException;
+import restful.demo.api.entity.Member;
+import restful.demo.api.service.MemberService;
+
+import javax.annotation.PreDestroy;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * 회원 전체를 파일로 내보내는 비동기 작업
+ *  - id 순으로 chunk-size 건씩 keyset 조회(읽기 전용 트랜잭션, 청크마다 영속성 컨텍스트를 버림)해서 힙에는 한 청크만 올라간다
+ *  - FileChannel 위에 버퍼(+ gzip)를 얹어 쓰고, 다 쓰면 .part 파일을 완성 파일 이름으로 바꾼다
+ *  - 동시에 concurrency 개까지 실행하고 queue-capacity 개까지 기다린다. 그보다 많으면 OverloadedException (503)
+ *  - 완료/실패 후 retention 이 지난 작업은 purge-interval 마다 파일과 함께 지운다
+ */
+@Slf4j
+@Service
+public class MemberExportService {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final MemberService memberService;
+    private final ObjectMapper smileMapper;
+    private final Path directory;
+    private final int chunkSize;
+    private final Duration retention;
+
+    private final Map<String, ExportJob> jobs = new ConcurrentHashMap<>();
+    private final ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+    private final ScheduledExecutorService purger = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "member-export-purge");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public MemberExportService(MemberService memberService,
+                               Jackson2ObjectMapperBuilder builder,
+                               @Value("${member.export.dir:${java.io.tmpdir}/member-exports}") String directory,
+                               @Value("${member.export.chunk-size:1000}") int chunkSize,
+                               @Value("${member.export.retention:1h}") Duration retention,
+                               @Value("${member.export.concurrency:2}") int concurrency,
+                               @Value("${member.export.queue-capacity:4}") int queueCapacity,
+                               @Value("${member.export.purge-interval:1m}") Duration purgeInterval) {
+        this.memberService = memberService;
+        this.smileMapper = builder.factory(new SmileFactory()).build();
+        this.directory = Paths.get(directory);
+        this.chunkSize = chunkSize;
+        this.retention = retention;
+        this.executor.setCorePoolSize(concurrency);
+        this.executor.setMaxPoolSize(concurrency);
+        this.executor.setQueueCapacity(queueCapacity);
+        this.executor.setThreadNamePrefix("member-export-");
+        this.executor.setDaemon(true);
+        this.executor.initialize();
+        try {
+            Files.createDirectories(this.directory);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        long millis = purgeInterval.toMillis();
+        purger.scheduleWithFixedDelay(this::purgeExpired, millis, millis, TimeUnit.MILLISECONDS);
+    }
+
+    public ExportJob start(ExportFormat format) {
+        ExportJob job = new ExportJob(UUID.randomUUID().toString(), format);
+        jobs.put(job.getId(), job);
+        try {
+            executor.execute(() -> run(job));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(job.getId());
+            throw new OverloadedException("진행 중인 export 작업이 많아 시작할 수 없습니다. 잠시 후 다시 시도해 주세요.");
+        }
+        return job;
+    }
+
+    /**
+     * 없는 작업이면 null
+     */
+    public ExportJob find(String id) {
+        return jobs.get(id);
+    }
+
+    /**
+     * 완료된 작업의 파일 전송 (Range, sendfile 지원)
+     */
+    public void send(ExportJob job, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        ExportFileSender.send(job.getFile(), "\"" + job.getId() + "\"", job.getFilename(), request, response);
+    }
+
+    private void run(ExportJob job) {
+        long start = System.currentTimeMillis();
+        Path file = directory.resolve(job.getFilename());
+        Path part = directory.resolve(job.getFilename() + ".part");
+        try {
+            try (FileChannel channel = FileChannel.open(part, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+                 MemberChunkWriter writer = MemberChunkWriter.open(job.getFormat(), outputStream(channel, job.getFormat()), smileMapper)) {
+                long lastId = 0;
+                List<Member> chunk = memberService.findPageAfter(lastId, chunkSize);
+                while (!chunk.isEmpty()) { // 페이지 크기는 MemberService 에서 상한이 걸리므로 빈 청크가 나올 때까지 읽는다
+                    writer.write(chunk);
+                    job.progress(chunk.size());
+                    lastId = chunk.get(chunk.size() - 1).getId();
+                    chunk = memberService.findPageAfter(lastId, chunkSize);
+                }
+            }
+            Files.move(part, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            job.done(file, Files.size(file));
+            log.info("member export finished. id={}, format={}, rows={}, bytes={}, elapsed={}ms",
+                    job.getId(), job.getFormat().getCode(), job.getRows(), job.getBytes(), System.currentTimeMillis() - start);
+        } catch (IOException | RuntimeException e) {
+            log.warn("member export failed. id={}", job.getId(), e);
+            job.failed(e.getMessage());
+            deleteQuietly(part);
+        }
+    }
+
+    private OutputStream outputStream(FileChannel channel, ExportFormat format) throws IOException {
+        OutputStream out = new BufferedOutputStream(Channels.newOutputStream(channel), BUFFER_SIZE);
+        return format.isCompressed() ? new GZIPOutputStream(out, BUFFER_SIZE) : out;
+    }
+
+    private void purgeExpired() {
+        long expiredBefore = System.currentTimeMillis() - retention.toMillis();
+        jobs.values().removeIf(job -> {
+            if (job.getFinishedAt() == null || job.getFinishedAt() >= expiredBefore) {
+                return false;
+            }
+            if (job.getFile() != null) {
+                deleteQuietly(job.getFile());
+            }
+            return true;
+        });
+    }
+
+    private void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("failed to delete export file. path={}", path, e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        purger.shutdownNow();
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,19 @@
+package restful.demo.api.lookup;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * /members/lookup 결과 한 건 - 점수가 높을수록 앞에 온다
+ */
+@Getter
+@AllArgsConstructor
+public class LookupHit {
+
+    private final Long id;
+    private final String stuNo;
+    private final String name;
+    private final String email;
+    private final String matchedField; // stuNo, name, initials(초성), email
+    private final double score;
+}
@@ -0,0 +1,566 @@
+package restful.demo.api.lookup;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import restful.demo.api.concurrency.OverloadedException;
+import restful.demo.api.entity.Member;
+import restful.demo.api.event.MemberChangedEvent;
+import restful.demo.api.service.MemberService;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 학번/이름/이메일 자동완성용 n-gram 색인 (DB 조회 없음)
+ *  - 회원마다 int 문서번호를 주고, 각 필드의 1글자/2글자 조각(gram) -> 문서번호 배열(posting)을 만든다
+ *  - 이름은 초성("김민서" -> "ㄱㅁㅅ")도 같이 색인해서 초성 검색을 지원한다
+ *  - 검색은 가장 짧은 posting 부터 교집합을 구해 후보를 줄인 뒤, 실제 문자열로 확인하고 점수를 매긴다
+ *    (완전일치 > 앞부분일치 > 부분일치, 필드가 짧을수록 위)
+ *  - 마지막 글자가 받침 없는 음절이면 입력 중인 글자로 보고 받침이 붙은 음절도 일치로 본다 ("김미" -> "김민서")
+ *  - 일치하는 결과가 하나도 없으면 gram 이 절반 이상 겹치는 회원을 오타 허용 결과로 돌려준다
+ *  - 1글자 검색은 후보가 너무 많아서(예: "김" 은 전체의 1/5) 결과를 캐시하고 색인이 바뀌면 비운다
+ * 변경은 MemberChangedEvent 로 반영한다 (수정 시 이전 문서는 지우고 새 문서번호로 다시 색인, 지운 문서가 많아지면 재구성)
+ * 기동 시 전체 적재는 preload-async 면 준비 완료 후 별도 스레드에서 한다
+ * 적재 중에 온 변경은 적재가 끝난 뒤에 순서대로 적용한다 (먼저 온 삭제를 스트림이 다시 살리거나, 스트림의 이전 값이 수정을 덮지 않게)
+ */
+@Slf4j
+@Component
+public class MemberLookupIndex {
+
+    public static final int MAX_LIMIT = 50;
+
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final int VERIFY_THRESHOLD = 64;   // 후보가 이보다 적으면 교집합을 그만 구하고 바로 문자열 확인
+    private static final int FUZZY_POSTING_CAP = 5000; // 오타 허용 검색에서 이보다 긴 posting(흔한 gram)은 건너뜀
+    private static final int COMPACT_MIN_DEAD = 1024;
+    private static final int SHORT_QUERY_CACHE_SIZE = 4096;
+    private static final char[] CHOSEONG = {'ㄱ', 'ㄲ', 'ㄴ', 'ㄷ', 'ㄸ', 'ㄹ', 'ㅁ', 'ㅂ', 'ㅃ', 'ㅅ', 'ㅆ', 'ㅇ', 'ㅈ', 'ㅉ', 'ㅊ', 'ㅋ', 'ㅌ', 'ㅍ', 'ㅎ'};
+    private static final char HANGUL_BEGIN = '가';
+    private static final char HANGUL_END = '힣';
+
+    private static final String[] FIELDS = {"stuNo", "name", "initials", "email"};
+    private static final double[] FIELD_WEIGHTS = {1.0, 1.0, 0.8, 0.7};
+
+    private final MemberService memberService;
+    private final boolean preload;
+    private final boolean preloadAsync;
+    private volatile boolean loading;
+    private final Object loadLock = new Object();
+    private List<MemberChangedEvent> deferred; // 전체 적재 중에 온 변경
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, Integer> docById = new HashMap<>();
+    private final Map<String, Postings> postings = new HashMap<>();
+    private final BitSet live = new BitSet();
+    private final Map<String, List<LookupHit>> shortQueryCache = new ConcurrentHashMap<>();
+    private long[] ids = new long[INITIAL_CAPACITY];
+    private String[][] values = new String[INITIAL_CAPACITY][]; // 문서번호 -> FIELDS 순서의 정규화된 값
+    private int docs;
+    private int dead;
+
+    public MemberLookupIndex(MemberService memberService,
+                             @Value("${member.lookup.preload:true}") boolean preload,
+                             @Value("${member.lookup.preload-async:false}") boolean preloadAsync) {
+        this.memberService = memberService;
+        this.preload = preload;
+        this.preloadAsync = preloadAsync;
+    }
+
+    /**
+     * preload-async 면 색인은 별도 스레드에서 만들고 바로 돌아간다 (다 만들 때까지 lookup 은 503)
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        if (!preload) {
+            return;
+        }
+        if (!preloadAsync) {
+            loadAll();
+            return;
+        }
+        loading = true;
+        Thread thread = new Thread(this::loadAll, "member-lookup-preload");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private void loadAll() {
+        synchronized (loadLock) {
+            deferred = new ArrayList<>();
+        }
+        try {
+            long start = System.currentTimeMillis();
+            memberService.streamAll(this::upsert);
+            log.info("member lookup index loaded. docs={}, grams={}, elapsed={}ms", size(), postings.size(), System.currentTimeMillis() - start);
+        } finally {
+            synchronized (loadLock) {
+                deferred.forEach(this::apply);
+                deferred = null;
+            }
+            loading = false;
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMemberChanged(MemberChangedEvent event) {
+        synchronized (loadLock) {
+            if (deferred != null) {
+                deferred.add(event);
+                return;
+            }
+            apply(event);
+        }
+    }
+
+    private void apply(MemberChangedEvent event) {
+        if (event.getType() == MemberChangedEvent.Type.DELETED) {
+            remove(event.getMemberId());
+        } else {
+            upsert(event.getMember());
+        }
+    }
+
+    public void upsert(Member member) {
+        String[] fieldValues = {
+                normalize(member.getStuNo()),
+                normalize(member.getName()),
+                initials(normalize(member.getName())),
+                normalize(member.getEmail())};
+        lock.writeLock().lock();
+        try {
+            Integer old = docById.get(member.getId());
+            if (old != null) {
+                if (Arrays.equals(values[old], fieldValues)) {
+                    return; // 색인 대상 필드는 그대로
+                }
+                live.clear(old);
+                dead++;
+            }
+            add(member.getId(), fieldValues);
+            shortQueryCache.clear();
+            compactIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long id) {
+        lock.writeLock().lock();
+        try {
+            Integer old = docById.remove(id);
+            if (old != null) {
+                live.clear(old);
+                dead++;
+                shortQueryCache.clear();
+                compactIfNeeded();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return docById.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public List<LookupHit> lookup(String q, int limit) {
+        if (loading) {
+            throw new OverloadedException("자동완성 색인을 적재하는 중입니다. 잠시 후 다시 시도해 주세요.");
+        }
+        String query = normalize(q);
+        if (query == null || query.isEmpty()) {
+            throw new IllegalArgumentException("검색어(q)가 비어 있습니다.");
+        }
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new IllegalArgumentException("limit 은 1 ~ " + MAX_LIMIT + " 사이여야 합니다. limit=" + limit);
+        }
+        boolean typing = query.length() >= 2 && isOpenSyllable(query.charAt(query.length() - 1));
+
+        lock.readLock().lock();
+        try {
+            if (query.length() == 1) {
+                String key = query + ":" + limit;
+                List<LookupHit> cached = shortQueryCache.get(key);
+                if (cached == null) {
+                    if (shortQueryCache.size() >= SHORT_QUERY_CACHE_SIZE) {
+                        shortQueryCache.clear();
+                    }
+                    cached = Collections.unmodifiableList(search(query, false, limit));
+                    shortQueryCache.put(key, cached); // 읽기 락 안에서 넣으므로 색인 변경(쓰기 락)과 겹치지 않는다
+                }
+                return cached;
+            }
+            return search(query, typing, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private List<LookupHit> search(String query, boolean typing, int limit) {
+        TopHits top = new TopHits(limit);
+        for (int doc : candidates(query, typing)) {
+            if (live.get(doc)) {
+                score(doc, query, typing, top);
+            }
+        }
+        if (top.isEmpty() && query.length() >= 3) {
+            fuzzy(grams(query), top);
+        }
+        return top.toList();
+    }
+
+    private void add(Long id, String[] fieldValues) {
+        int doc = docs++;
+        if (doc == ids.length) {
+            ids = Arrays.copyOf(ids, doc * 2);
+            values = Arrays.copyOf(values, doc * 2);
+        }
+        ids[doc] = id;
+        values[doc] = fieldValues;
+        live.set(doc);
+        docById.put(id, doc);
+        Set<String> docGrams = new LinkedHashSet<>();
+        for (String value : fieldValues) {
+            if (value != null) {
+                docGrams.addAll(indexGrams(value));
+            }
+        }
+        for (String gram : docGrams) {
+            postings.computeIfAbsent(gram, g -> new Postings()).add(doc);
+        }
+    }
+
+    /**
+     * 지운 문서가 절반을 넘으면 살아있는 문서만으로 다시 색인 (문서번호가 다시 0 부터 채워짐)
+     */
+    private void compactIfNeeded() {
+        if (dead < COMPACT_MIN_DEAD || dead * 2 < docs) {
+            return;
+        }
+        long[] oldIds = ids;
+        String[][] oldValues = values;
+        BitSet oldLive = (BitSet) live.clone();
+        docById.clear();
+        postings.clear();
+        live.clear();
+        ids = new long[Math.max(INITIAL_CAPACITY, oldLive.cardinality() * 2)];
+        values = new String[ids.length][];
+        docs = 0;
+        dead = 0;
+        for (int doc = oldLive.nextSetBit(0); doc >= 0; doc = oldLive.nextSetBit(doc + 1)) {
+            add(oldIds[doc], oldValues[doc]);
+        }
+    }
+
+    /**
+     * gram 별 posting 의 교집합 - 짧은 것부터 구하고, 후보가 충분히 적어지면 나머지는 문자열 확인에 맡긴다
+     * 입력 중인 음절은 받침이 붙은 경우까지 합친 posting 을 쓴다
+     */
+    private int[] candidates(String query, boolean typing) {
+        String head = typing ? query.substring(0, query.length() - 1) : query;
+        List<Postings> lists = new ArrayList<>();
+        if (typing) {
+            lists.add(completions(head.charAt(head.length() - 1), query.charAt(query.length() - 1)));
+        }
+        if (!typing || head.length() >= 2) {
+            for (String gram : grams(head)) {
+                Postings list = postings.get(gram);
+                if (list == null) {
+                    return new int[0];
+                }
+                lists.add(list);
+            }
+        }
+        lists.sort(Comparator.comparingInt(list -> list.size));
+        int[] result = Arrays.copyOf(lists.get(0).docs, lists.get(0).size);
+        for (int i = 1; i < lists.size() && result.length > VERIFY_THRESHOLD; i++) {
+            result = intersect(result, lists.get(i));
+        }
+        return result;
+    }
+
+    /**
+     * 앞 글자 + 입력 중인 음절(받침 없음 ~ 받침 27가지) 2글자 조각 posting 의 합집합
+     */
+    private Postings completions(char previous, char open) {
+        List<Postings> found = new ArrayList<>();
+        int total = 0;
+        for (int jongseong = 0; jongseong < 28; jongseong++) {
+            Postings list = postings.get(new String(new char[]{previous, (char) (open + jongseong)}));
+            if (list != null) {
+                found.add(list);
+                total += list.size;
+            }
+        }
+        int[] docs = new int[total];
+        int offset = 0;
+        for (Postings list : found) {
+            System.arraycopy(list.docs, 0, docs, offset, list.size);
+            offset += list.size;
+        }
+        Arrays.sort(docs);
+        int size = 0;
+        for (int i = 0; i < docs.length; i++) {
+            if (size == 0 || docs[size - 1] != docs[i]) {
+                docs[size++] = docs[i];
+            }
+        }
+        return new Postings(docs, size);
+    }
+
+    private int[] intersect(int[] left, Postings right) {
+        int[] result = new int[Math.min(left.length, right.size)];
+        int size = 0;
+        if ((long) left.length * 16 < right.size) {
+            // 한쪽이 훨씬 짧으면 긴 쪽은 이진 탐색
+            int from = 0;
+            for (int doc : left) {
+                int found = Arrays.binarySearch(right.docs, from, right.size, doc);
+                if (found >= 0) {
+                    result[size++] = doc;
+                    from = found + 1;
+                } else {
+                    from = -found - 1;
+                }
+            }
+            return Arrays.copyOf(result, size);
+        }
+        int i = 0;
+        int j = 0;
+        while (i < left.length && j < right.size) {
+            if (left[i] < right.docs[j]) {
+                i++;
+            } else if (left[i] > right.docs[j]) {
+                j++;
+            } else {
+                result[size++] = left[i];
+                i++;
+                j++;
+            }
+        }
+        return Arrays.copyOf(result, size);
+    }
+
+    /**
+     * 필드별로 완전일치 > 앞부분일치 > 부분일치 점수를 매기고 가장 높은 필드 점수를 쓴다 (필드가 길수록 조금씩 감점)
+     */
+    private void score(int doc, String query, boolean typing, TopHits top) {
+        double best = 0;
+        int bestField = -1;
+        for (int field = 0; field < FIELDS.length; field++) {
+            String value = values[doc][field];
+            if (value == null) {
+                continue;
+            }
+            double base;
+            int position = value.indexOf(query);
+            if (position >= 0) {
+                base = value.length() == query.length() ? 100 : position == 0 ? 60 : 30;
+            } else if (typing && (position = indexOfTyping(value, query)) >= 0) {
+                base = position == 0 ? 55 : 25;
+            } else {
+                continue;
+            }
+            double score = base * FIELD_WEIGHTS[field] - 0.1 * (value.length() - query.length());
+            if (score > best) {
+                best = score;
+                bestField = field;
+            }
+        }
+        if (bestField >= 0) {
+            top.offer(doc, best, FIELDS[bestField]);
+        }
+    }
+
+    /**
+     * 오타 허용 - 검색어 gram 의 절반 이상을 가진 회원 (너무 흔한 gram 은 세지 않음)
+     */
+    private void fuzzy(Set<String> grams, TopHits top) {
+        Map<Integer, Integer> shared = new HashMap<>();
+        for (String gram : grams) {
+            Postings list = postings.get(gram);
+            if (list == null || list.size > FUZZY_POSTING_CAP) {
+                continue;
+            }
+            for (int i = 0; i < list.size; i++) {
+                shared.merge(list.docs[i], 1, Integer::sum);
+            }
+        }
+        for (Map.Entry<Integer, Integer> entry : shared.entrySet()) {
+            double ratio = (double) entry.getValue() / grams.size();
+            if (ratio >= 0.5 && live.get(entry.getKey())) {
+                top.offer(entry.getKey(), 20 * ratio, "fuzzy");
+            }
+        }
+    }
+
+    /**
+     * 검색어의 마지막 음절은 초성+중성만 같으면 일치로 본다 (입력 중인 글자)
+     */
+    static int indexOfTyping(String value, String query) {
+        String head = query.substring(0, query.length() - 1);
+        int syllable = (query.charAt(query.length() - 1) - HANGUL_BEGIN) / 28;
+        for (int from = value.indexOf(head); from >= 0; from = value.indexOf(head, from + 1)) {
+            int next = from + head.length();
+            if (next < value.length() && isSyllable(value.charAt(next)) && (value.charAt(next) - HANGUL_BEGIN) / 28 == syllable) {
+                return from;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * 검색어 gram - 1글자면 글자 자체, 2글자 이상이면 인접한 2글자 조각들
+     */
+    static Set<String> grams(String query) {
+        Set<String> grams = new LinkedHashSet<>();
+        if (query.length() == 1) {
+            grams.add(query);
+        }
+        for (int i = 0; i + 1 < query.length(); i++) {
+            grams.add(query.substring(i, i + 2));
+        }
+        return grams;
+    }
+
+    /**
+     * 색인 gram - 1글자 검색도 되도록 글자 하나짜리와 2글자 조각을 모두 넣는다
+     */
+    private static Set<String> indexGrams(String value) {
+        Set<String> grams = new LinkedHashSet<>();
+        for (int i = 0; i < value.length(); i++) {
+            grams.add(value.substring(i, i + 1));
+            if (i + 1 < value.length()) {
+                grams.add(value.substring(i, i + 2));
+            }
+        }
+        return grams;
+    }
+
+    static String initials(String name) {
+        if (name == null) {
+            return null;
+        }
+        StringBuilder builder = new StringBuilder(name.length());
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            builder.append(isSyllable(c) ? CHOSEONG[(c - HANGUL_BEGIN) / 588] : c);
+        }
+        return builder.toString();
+    }
+
+    private static String normalize(String value) {
+        return value == null ? null : value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static boolean isSyllable(char c) {
+        return c >= HANGUL_BEGIN && c <= HANGUL_END;
+    }
+
+    private static boolean isOpenSyllable(char c) {
+        return isSyllable(c) && (c - HANGUL_BEGIN) % 28 == 0; // 받침 없음
+    }
+
+    /**
+     * 점수 상위 limit 건만 유지 (점수가 같으면 학번 순) - 후보마다 객체를 만들지 않도록 배열로 둔다
+     */
+    private class TopHits {
+
+        private final int[] docs;
+        private final double[] scores;
+        private final String[] fields;
+        private int size;
+
+        TopHits(int limit) {
+            this.docs = new int[limit];
+            this.scores = new double[limit];
+            this.fields = new String[limit];
+        }
+
+        void offer(int doc, double score, String field) {
+            if (size == docs.length && !before(doc, score, docs[size - 1], scores[size - 1])) {
+                return;
+            }
+            int i = size == docs.length ? size - 1 : size++;
+            for (; i > 0 && before(doc, score, docs[i - 1], scores[i - 1]); i--) {
+                docs[i] = docs[i - 1];
+                scores[i] = scores[i - 1];
+                fields[i] = fields[i - 1];
+            }
+            docs[i] = doc;
+            scores[i] = score;
+            fields[i] = field;
+        }
+
+        boolean isEmpty() {
+            return size == 0;
+        }
+
+        List<LookupHit> toList() {
+            List<LookupHit> hits = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                String[] fieldValues = values[docs[i]];
+                hits.add(new LookupHit(ids[docs[i]], fieldValues[0], fieldValues[1], fieldValues[3], fields[i], scores[i]));
+            }
+            return hits;
+        }
+
+        private boolean before(int doc, double score, int other, double otherScore) {
+            if (score != otherScore) {
+                return score > otherScore;
+            }
+            String stuNo = values[doc][0];
+            String otherStuNo = values[other][0];
+            if (stuNo == null || otherStuNo == null) {
+                return stuNo != null; // 학번 없는 회원은 뒤로
+            }
+            return stuNo.compareTo(otherStuNo) < 0;
+        }
+    }
+
+    /**
+     * 문서번호 배열 - 문서번호가 증가하는 순서로만 추가되므로 항상 정렬되어 있다
+     */
+    private static class Postings {
+
+        private int[] docs;
+        private int size;
+
+        Postings() {
+            this(new int[4], 0);
+        }
+
+        Postings(int[] docs, int size) {
+            this.docs = docs;
+            this.size = size;
+        }
+
+        void add(int doc) {
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size * 2);
+            }
+            docs[size++] = doc;
+        }
+    }
+}
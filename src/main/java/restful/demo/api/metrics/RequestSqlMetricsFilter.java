@@ -0,0 +1,99 @@
+package restful.demo.api.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import net.ttddyy.dsproxy.QueryCount;
+import net.ttddyy.dsproxy.QueryCountHolder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 요청 하나에서 실행된 SQL 건수/DB 시간을 엔드포인트(uri 패턴)별로 기록한다
+ * 한 요청에서 threshold 건을 넘게 실행하면 N+1 의심으로 경고 로그를 남긴다
+ *
+ *  /actuator/metrics/member.request.sql.statements?tag=uri:/members
+ *  /actuator/metrics/member.request.sql.time?tag=uri:/members
+ *  /actuator/metrics/member.request.sql.excessive
+ *
+ * 비동기 요청은 DB 실행 스레드(MemberQueryExecutor)에서 RequestSqlStats 에 합산하고 async dispatch 가 끝날 때 기록한다
+ */
+@Slf4j
+@Component
+public class RequestSqlMetricsFilter extends OncePerRequestFilter {
+
+    private final MeterRegistry meterRegistry;
+    private final int statementThreshold;
+
+    public RequestSqlMetricsFilter(MeterRegistry meterRegistry,
+                                   @Value("${member.metrics.sql-statement-threshold:20}") int statementThreshold) {
+        this.meterRegistry = meterRegistry;
+        this.statementThreshold = statementThreshold;
+    }
+
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return false;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        RequestSqlStats stats = (RequestSqlStats) request.getAttribute(RequestSqlStats.ATTRIBUTE);
+        if (stats == null) {
+            stats = new RequestSqlStats();
+            request.setAttribute(RequestSqlStats.ATTRIBUTE, stats);
+        }
+        QueryCountHolder.clear();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            QueryCount count = QueryCountHolder.getGrandTotal();
+            stats.add(count.getTotal(), count.getTime());
+            QueryCountHolder.clear();
+            if (!request.isAsyncStarted()) {
+                record(request, stats);
+            }
+        }
+    }
+
+    private void record(HttpServletRequest request, RequestSqlStats stats) {
+        String uri = uri(request);
+        long statements = stats.getStatements();
+        long timeMillis = stats.getTimeMillis();
+
+        DistributionSummary.builder("member.request.sql.statements")
+                .description("SQL statements executed per request")
+                .tag("uri", uri)
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry)
+                .record(statements);
+        Timer.builder("member.request.sql.time")
+                .description("Total JDBC execution time per request")
+                .tag("uri", uri)
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry)
+                .record(timeMillis, TimeUnit.MILLISECONDS);
+
+        if (statements > statementThreshold) {
+            meterRegistry.counter("member.request.sql.excessive", "uri", uri).increment();
+            log.warn("possible N+1: {} {} executed {} statements ({}ms, threshold={})",
+                    request.getMethod(), uri, statements, timeMillis, statementThreshold);
+        }
+    }
+
+    private String uri(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return pattern == null ? "UNKNOWN" : pattern.toString();
+    }
+}
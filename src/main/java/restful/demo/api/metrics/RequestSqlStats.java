@@ -0,0 +1,28 @@
+package restful.demo.api.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 요청 하나에서 실행된 SQL 건수/시간 누적값
+ * 비동기 처리로 여러 스레드에서 SQL 이 실행돼도 request attribute 로 이 객체를 공유해서 합산한다
+ */
+public class RequestSqlStats {
+
+    public static final String ATTRIBUTE = RequestSqlStats.class.getName();
+
+    private final AtomicLong statements = new AtomicLong();
+    private final AtomicLong timeMillis = new AtomicLong();
+
+    public void add(long statements, long timeMillis) {
+        this.statements.addAndGet(statements);
+        this.timeMillis.addAndGet(timeMillis);
+    }
+
+    public long getStatements() {
+        return statements.get();
+    }
+
+    public long getTimeMillis() {
+        return timeMillis.get();
+    }
+}
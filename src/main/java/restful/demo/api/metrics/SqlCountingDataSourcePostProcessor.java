@@ -0,0 +1,29 @@
+package restful.demo.api.metrics;
+
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+
+/**
+ * 애플리케이션 DataSource(빈 이름 dataSource)를 datasource-proxy 로 감싸서
+ * 스레드별로 실행된 SQL 건수와 실행 시간을 QueryCountHolder 에 쌓는다
+ */
+@Component
+public class SqlCountingDataSourcePostProcessor implements BeanPostProcessor {
+
+    static final String DATA_SOURCE_NAME = "member-ds";
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof DataSource && !(bean instanceof ProxyDataSource) && "dataSource".equals(beanName)) {
+            return ProxyDataSourceBuilder.create((DataSource) bean)
+                    .name(DATA_SOURCE_NAME)
+                    .countQuery()
+                    .build();
+        }
+        return bean;
+    }
+}
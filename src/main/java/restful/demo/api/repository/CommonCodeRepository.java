@@ -0,0 +1,12 @@
+package restful.demo.api.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import restful.demo.api.entity.CommonCode;
+import restful.demo.api.entity.CommonCodeId;
+
+import java.util.List;
+
+public interface CommonCodeRepository extends JpaRepository<CommonCode, CommonCodeId> {
+
+    List<CommonCode> findByUsedTrueOrderByCodeGroupAscSortOrderAscCodeAsc();
+}
@@ -0,0 +1,49 @@
+package restful.demo.api.repository;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.persistence.EntityManagerFactory;
+
+/**
+ * 컬럼이 생기기 전부터 있던 행의 NULL 을 0 으로 채운다
+ *  - member.changed_at : 변경시각 (없던 시절의 회원)
+ *  - member.change_version, member_tombstone.version : 변경분 동기화(findChangedAfter, findDeletedAfter) 기준 버전
+ *    NULL 이면 범위 비교에 걸리지 않아 처음 동기화에서도, 이후 어떤 동기화에서도 내려가지 않는다. 0 이면 처음 동기화에 포함된다
+ *  - 기동(ddl-auto: update) 과 ./gradlew migrateSchema 에서 EntityManagerFactory(컬럼 추가) 다음에 실행
+ *  - 한 번에 BATCH_SIZE 건씩 나눠서 갱신하므로 큰 테이블도 락을 오래 잡지 않는다. NULL 이 없으면 인덱스 조회 한 번으로 끝
+ */
+@Slf4j
+@Component
+public class MemberChangedAtBackfill {
+
+    static final int BATCH_SIZE = 10000;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // EntityManagerFactory 는 쓰지 않지만, 주입받아서 ddl-auto 로 컬럼이 만들어진 다음에 실행되게 한다
+    public MemberChangedAtBackfill(JdbcTemplate jdbcTemplate, EntityManagerFactory entityManagerFactory) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @PostConstruct
+    public void backfill() {
+        fill("member", "changed_at");
+        fill("member", "change_version");
+        fill("member_tombstone", "version");
+    }
+
+    private void fill(String table, String column) {
+        long total = 0;
+        int updated;
+        do {
+            updated = jdbcTemplate.update("update " + table + " set " + column + " = 0 where " + column + " is null limit " + BATCH_SIZE);
+            total += updated;
+        } while (updated == BATCH_SIZE);
+        if (total > 0) {
+            log.info("{}.{} backfilled. rows={}", table, column, total);
+        }
+    }
+}
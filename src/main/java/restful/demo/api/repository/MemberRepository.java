@@ -1,12 +1,44 @@
 package restful.demo.api.repository;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
+import restful.demo.api.dto.MemberSummary;
 import restful.demo.api.entity.Member;
 
-public interface MemberRepository extends JpaRepository<Member, Long> {
+import javax.persistence.QueryHint;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.QueryHints.HINT_READONLY;
+
+public interface MemberRepository extends JpaRepository<Member, Long>, JpaSpecificationExecutor<Member>, MemberRepositoryCustom {
 
     @Query("select m from Member m where m.id = :id")
     Member findByMemberOne(Long id);
+
+    // 커서(id > lastId) 기반 페이징 - offset 없이 PK 인덱스만 타도록
+    @Query("select m from Member m where m.id > :lastId order by m.id")
+    List<Member> findPageAfter(Long lastId, Pageable pageable);
+
+    @Query("select m.id as id, m.stuNo as stuNo, m.name as name, m.sustCd as sustCd, m.shysCd as shysCd" +
+            " from Member m where m.id > :lastId order by m.id")
+    List<MemberSummary> findSummaryPageAfter(Long lastId, Pageable pageable);
+
+    // 변경분 동기화 - (changeVersion, id) 순서로 토큰 이후 (idx_member_change_version 사용)
+    @Query("select m from Member m where m.changeVersion > :version or (m.changeVersion = :version and m.id > :lastId)" +
+            " order by m.changeVersion, m.id")
+    List<Member> findChangedAfter(Long version, Long lastId, Pageable pageable);
+
+    // 전체 목록을 한번에 올리지 않고 forward-only 커서로 한 건씩 읽는다 (반드시 트랜잭션 안에서 사용 후 close)
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HINT_READONLY, value = "true")
+    })
+    @Query("select m from Member m order by m.id")
+    Stream<Member> streamAll();
 }
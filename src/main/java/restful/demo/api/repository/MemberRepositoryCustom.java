@@ -0,0 +1,14 @@
+package restful.demo.api.repository;
+
+import restful.demo.api.dto.MemberField;
+
+import java.util.List;
+import java.util.Map;
+
+public interface MemberRepositoryCustom {
+
+    /**
+     * 선택한 컬럼만 select 해서 필드명 -> 값 맵으로 반환 (커서 기반 페이징)
+     */
+    List<Map<String, Object>> findFieldsPageAfter(List<MemberField> fields, long lastId, int size);
+}
@@ -0,0 +1,54 @@
+package restful.demo.api.repository;
+
+import lombok.RequiredArgsConstructor;
+import restful.demo.api.dto.MemberField;
+import restful.demo.api.entity.Member;
+
+import javax.persistence.EntityManager;
+import javax.persistence.Tuple;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Root;
+import javax.persistence.criteria.Selection;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.hibernate.jpa.QueryHints.HINT_READONLY;
+
+@RequiredArgsConstructor
+public class MemberRepositoryImpl implements MemberRepositoryCustom {
+
+    private final EntityManager em;
+
+    @Override
+    public List<Map<String, Object>> findFieldsPageAfter(List<MemberField> fields, long lastId, int size) {
+        CriteriaBuilder cb = em.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Member> m = query.from(Member.class);
+
+        List<Selection<?>> selections = fields.stream()
+                .<Selection<?>>map(field -> field.path(m))
+                .collect(Collectors.toList());
+        query.multiselect(selections)
+                .where(cb.greaterThan(m.<Long>get("id"), lastId))
+                .orderBy(cb.asc(m.get("id")));
+
+        List<Tuple> tuples = em.createQuery(query)
+                .setMaxResults(size)
+                .setHint(HINT_READONLY, true)
+                .getResultList();
+
+        List<Map<String, Object>> result = new ArrayList<>(tuples.size());
+        for (Tuple tuple : tuples) {
+            Map<String, Object> row = new LinkedHashMap<>();
+            for (int i = 0; i < fields.size(); i++) {
+                row.put(fields.get(i).getName(), tuple.get(i));
+            }
+            result.add(row);
+        }
+        return result;
+    }
+}
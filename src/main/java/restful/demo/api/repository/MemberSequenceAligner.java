@@ -0,0 +1,50 @@
+package restful.demo.api.repository;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import restful.demo.api.entity.Member;
+
+import javax.annotation.PostConstruct;
+import javax.persistence.EntityManagerFactory;
+
+/**
+ * member id 시퀀스(member_seq) 를 기존 member_id 보다 위로 맞춘다
+ * MySQL 에는 시퀀스가 없어 Hibernate 가 member_seq 테이블(next_val)로 흉내내는데, ddl-auto 가 새로 만든 테이블은 1 부터라
+ * IDENTITY 로 쌓인 행이 있는 member 테이블에서는 이미 있는 id 를 다시 할당해서 insert 가 중복 키로 실패한다
+ *  - 기동(ddl-auto: update) 과 ./gradlew migrateSchema 에서 EntityManagerFactory(스키마 갱신) 다음에 한 번 실행
+ *  - next_val 이 max(member_id) + allocationSize 이하일 때만 올리므로 몇 번을 실행해도 같다
+ *  - 진짜 시퀀스를 쓰는 DB(H2 등)는 member_seq 테이블이 없으므로 건너뛴다
+ */
+@Slf4j
+@Component
+public class MemberSequenceAligner {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // EntityManagerFactory 는 쓰지 않지만, 주입받아서 ddl-auto 로 member_seq 가 만들어진 다음에 실행되게 한다
+    public MemberSequenceAligner(JdbcTemplate jdbcTemplate, EntityManagerFactory entityManagerFactory) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @PostConstruct
+    public void align() {
+        Long nextVal;
+        try {
+            nextVal = jdbcTemplate.queryForObject("select max(next_val) from member_seq", Long.class);
+        } catch (DataAccessException e) {
+            log.debug("member_seq table not found, sequence alignment skipped: {}", e.getMessage());
+            return;
+        }
+        long maxId = jdbcTemplate.queryForObject("select coalesce(max(member_id), 0) from member", Long.class);
+        long required = maxId + Member.ID_ALLOCATION_SIZE + 1;
+        if (nextVal != null && nextVal >= required) {
+            return;
+        }
+        int updated = nextVal == null
+                ? jdbcTemplate.update("insert into member_seq (next_val) values (?)", required)
+                : jdbcTemplate.update("update member_seq set next_val = ? where next_val < ?", required, required);
+        log.info("member_seq aligned. next_val {} -> {} (max member_id={}, rows={})", nextVal, required, maxId, updated);
+    }
+}
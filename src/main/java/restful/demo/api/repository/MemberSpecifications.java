@@ -0,0 +1,38 @@
+package restful.demo.api.repository;
+
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.util.StringUtils;
+import restful.demo.api.dto.MemberSearchCondition;
+import restful.demo.api.entity.Member;
+
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.Path;
+import javax.persistence.criteria.Predicate;
+import java.util.ArrayList;
+import java.util.List;
+
+public final class MemberSpecifications {
+
+    private MemberSpecifications() {
+    }
+
+    public static Specification<Member> search(MemberSearchCondition condition) {
+        return (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            addEqual(predicates, cb, root.get("stuNo"), condition.getStuNo());
+            addEqual(predicates, cb, root.get("enterYear"), condition.getEnterYear());
+            addEqual(predicates, cb, root.get("sustCd"), condition.getSustCd());
+            addEqual(predicates, cb, root.get("mjrCd"), condition.getMjrCd());
+            addEqual(predicates, cb, root.get("shysCd"), condition.getShysCd());
+            addEqual(predicates, cb, root.get("shtmCd"), condition.getShtmCd());
+            addEqual(predicates, cb, root.get("finSchregDivCd"), condition.getFinSchregDivCd());
+            return cb.and(predicates.toArray(new Predicate[0]));
+        };
+    }
+
+    private static void addEqual(List<Predicate> predicates, CriteriaBuilder cb, Path<Object> path, String value) {
+        if (StringUtils.hasText(value)) {
+            predicates.add(cb.equal(path, value));
+        }
+    }
+}
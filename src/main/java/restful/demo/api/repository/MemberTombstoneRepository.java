@@ -0,0 +1,13 @@
+package restful.demo.api.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import restful.demo.api.entity.MemberTombstone;
+
+import java.util.List;
+
+public interface MemberTombstoneRepository extends JpaRepository<MemberTombstone, Long> {
+
+    @Query("select t from MemberTombstone t where t.version > :version order by t.version")
+    List<MemberTombstone> findDeletedAfter(Long version);
+}
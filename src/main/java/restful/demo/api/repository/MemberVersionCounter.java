@@ -0,0 +1,72 @@
+package restful.demo.api.repository;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.annotation.PostConstruct;
+import javax.persistence.EntityManagerFactory;
+
+/**
+ * 회원 변경 버전(member_version) - 회원을 바꾸는 트랜잭션 안에서 한 번 올리고, 커밋된 값은 ETag 등이 읽는다
+ *  - 올린 행은 커밋(롤백)할 때까지 잠겨 있어서 다음 쓰기 트랜잭션은 앞 트랜잭션이 끝나야 버전을 받는다
+ *    그래서 버전 순서가 곧 커밋 순서이고, 커밋된 버전보다 작은 버전을 가진 트랜잭션이 나중에 커밋되는 일이 없다
+ *  - 한 트랜잭션에서 여러 번 불러도 처음 한 번만 올린다 (import 한 배치, write-behind 한 flush 가 버전 하나)
+ * 회원 쓰기 트랜잭션끼리는 이 행에서 줄을 선다 - 쓰기는 import/write-behind 로 배치가 되므로 감수한다
+ */
+@Slf4j
+@Component
+public class MemberVersionCounter {
+
+    static final String NEXT_SQL = "update member_version set version = version + 1 where id = 1";
+    static final String CURRENT_SQL = "select version from member_version where id = 1";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // EntityManagerFactory 는 쓰지 않지만, 주입받아서 ddl-auto 로 member_version 이 만들어진 다음에 실행되게 한다
+    public MemberVersionCounter(JdbcTemplate jdbcTemplate, EntityManagerFactory entityManagerFactory) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @PostConstruct
+    public void init() {
+        Integer rows = jdbcTemplate.queryForObject("select count(*) from member_version", Integer.class);
+        if (rows == null || rows == 0) {
+            jdbcTemplate.update("insert into member_version (id, version) values (1, 0)");
+            log.info("member_version initialized");
+        }
+    }
+
+    /**
+     * 현재 트랜잭션의 버전 - 처음 부를 때 올리고 그 값을 트랜잭션이 끝날 때까지 돌려준다
+     */
+    public long next() {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw new IllegalStateException("회원 변경 버전은 쓰기 트랜잭션 안에서만 올릴 수 있습니다.");
+        }
+        Long version = (Long) TransactionSynchronizationManager.getResource(this);
+        if (version != null) {
+            return version;
+        }
+        jdbcTemplate.update(NEXT_SQL);
+        version = jdbcTemplate.queryForObject(CURRENT_SQL, Long.class);
+        TransactionSynchronizationManager.bindResource(this, version);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(MemberVersionCounter.this);
+            }
+        });
+        return version;
+    }
+
+    /**
+     * 커밋된 마지막 버전
+     */
+    public long current() {
+        Long version = jdbcTemplate.queryForObject(CURRENT_SQL, Long.class);
+        return version == null ? 0 : version;
+    }
+}
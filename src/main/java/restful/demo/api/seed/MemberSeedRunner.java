@@ -0,0 +1,44 @@
+package restful.demo.api.seed;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+import restful.demo.api.dto.ImportResult;
+import restful.demo.api.repository.CommonCodeRepository;
+import restful.demo.api.service.MemberImportService;
+
+/**
+ * loadtest 프로파일에서 기동 시 가상 회원 member.seed.count 건을 넣는다 (대량 등록과 같은 배치 insert 경로 사용)
+ * 공통코드도 같이 넣는다 (CodeDictionary 는 이 다음 ApplicationReadyEvent 에서 적재)
+ */
+@Slf4j
+@Component
+@Profile("loadtest")
+public class MemberSeedRunner implements ApplicationRunner {
+
+    private final MemberImportService memberImportService;
+    private final CommonCodeRepository commonCodeRepository;
+    private final long count;
+    private final long seed;
+
+    public MemberSeedRunner(MemberImportService memberImportService,
+                            CommonCodeRepository commonCodeRepository,
+                            @Value("${member.seed.count:10000}") long count,
+                            @Value("${member.seed.random-seed:42}") long seed) {
+        this.memberImportService = memberImportService;
+        this.commonCodeRepository = commonCodeRepository;
+        this.count = count;
+        this.seed = seed;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        commonCodeRepository.saveAll(SyntheticMemberGenerator.commonCodes());
+        log.info("seeding {} synthetic members", count);
+        ImportResult result = memberImportService.importRows(new SyntheticMemberGenerator(count, seed), null);
+        log.info("seeded {} members in {}ms ({} rows/sec)", result.getRows(), result.getElapsedMillis(), result.getRowsPerSecond());
+    }
+}
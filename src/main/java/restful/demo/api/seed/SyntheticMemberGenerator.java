@@ -0,0 +1,131 @@
+package restful.demo.api.seed;
+
+import restful.demo.api.dto.MemberImportRow;
+import restful.demo.api.entity.CodeGroup;
+import restful.demo.api.entity.CommonCode;
+import restful.demo.api.entity.Gender;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Random;
+
+/**
+ * 부하 테스트/벤치마크용 가상 회원 데이터 (seed 가 같으면 항상 같은 데이터)
+ * 한 건씩 만들어서 넘기므로 100만 건을 만들어도 메모리에 쌓이지 않는다
+ *
+ * 코드 분포는 실제 학사 데이터와 비슷하게 치우치게 만든다
+ *  - 학과 : 큰 학과 몇 개에 학생이 몰림 (가중치)
+ *  - 학적상태 : 재학 > 휴학 > 졸업/제적
+ *  - 학년/학기수 : 입학년도에서 계산
+ */
+public class SyntheticMemberGenerator implements Iterator<MemberImportRow> {
+
+    private static final String[] SUST_CDS = {"SUSTCD001", "SUSTCD002", "SUSTCD003", "SUSTCD004", "SUSTCD005",
+            "SUSTCD006", "SUSTCD007", "SUSTCD008", "SUSTCD009", "SUSTCD010"};
+    private static final int[] SUST_WEIGHTS = {20, 16, 13, 11, 9, 8, 7, 6, 5, 5};
+    private static final String[] SUST_NAMES = {"컴퓨터공학과", "경영학과", "기계공학과", "전자공학과", "국어국문학과",
+            "영어영문학과", "화학과", "수학과", "사회복지학과", "음악학과"};
+    private static final String[] FIN_SCHREG_DIV_CDS = {"FinSchregDivCd001", "FinSchregDivCd002", "FinSchregDivCd003", "FinSchregDivCd004"};
+    private static final int[] FIN_SCHREG_DIV_WEIGHTS = {75, 15, 7, 3}; // 재학, 휴학, 졸업, 제적
+    private static final String[] FIN_SCHREG_DIV_NAMES = {"재학", "휴학", "졸업", "제적"};
+    private static final String[] LAST_NAMES = {"김", "이", "박", "최", "정", "강", "조", "윤", "장", "임", "한", "오", "서", "신", "권"};
+    private static final int[] LAST_NAME_WEIGHTS = {21, 15, 8, 5, 4, 2, 2, 2, 2, 2, 2, 1, 1, 1, 1};
+    private static final String[] NAME_SYLLABLES = {"민", "서", "지", "현", "준", "우", "연", "수", "하", "윤",
+            "진", "영", "은", "재", "원", "성", "예", "도", "주", "아"};
+    private static final String[] CITIES = {"서울특별시", "경기도", "인천광역시", "부산광역시", "대구광역시", "대전광역시", "광주광역시"};
+    private static final int[] CITY_WEIGHTS = {35, 30, 8, 8, 7, 6, 6};
+    private static final String[] STREETS = {"불광로", "세종대로", "테헤란로", "중앙로", "대학로", "한빛로", "동문로"};
+    private static final String[] EMAIL_DOMAINS = {"naver.com", "gmail.com", "daum.net", "univ.ac.kr"};
+    private static final int CURRENT_YEAR = 2021;
+
+    private final Random random;
+    private final long count;
+    private long generated;
+
+    public SyntheticMemberGenerator(long count, long seed) {
+        this.count = count;
+        this.random = new Random(seed);
+    }
+
+    @Override
+    public boolean hasNext() {
+        return generated < count;
+    }
+
+    @Override
+    public MemberImportRow next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        long sequence = generated++;
+        int enterYear = CURRENT_YEAR - random.nextInt(6);
+        int grade = Math.min(4, CURRENT_YEAR - enterYear + 1);
+        int sust = pick(SUST_WEIGHTS);
+
+        MemberImportRow row = new MemberImportRow();
+        row.setStuNo(enterYear + String.format("%07d", sequence)); // 일련번호가 달라서 학번이 겹치지 않음
+        row.setEnterYear(String.valueOf(enterYear));
+        row.setName(LAST_NAMES[pick(LAST_NAME_WEIGHTS)] + syllable() + syllable());
+        row.setBirthMd(String.format("%02d%02d%02d", (enterYear - 19) % 100, 1 + random.nextInt(12), 1 + random.nextInt(28)));
+        row.setSustCd(SUST_CDS[sust]);
+        row.setMjrCd(String.format("MJRCD%03d", sust * 10 + 1 + random.nextInt(3))); // 학과마다 전공 3개
+        row.setShysCd(String.valueOf(grade));
+        row.setShtmCd(String.valueOf(1 + random.nextInt(2)));
+        row.setFinSchregDivCd(FIN_SCHREG_DIV_CDS[pick(FIN_SCHREG_DIV_WEIGHTS)]);
+        row.setCptnShtmCnt(Math.max(1, grade * 2 - random.nextInt(2)));
+        row.setEmail("stu" + sequence + "@" + EMAIL_DOMAINS[random.nextInt(EMAIL_DOMAINS.length)]);
+        row.setGender(random.nextBoolean() ? Gender.MAN : Gender.WOMAN);
+        row.setCity(CITIES[pick(CITY_WEIGHTS)]);
+        row.setStreet(STREETS[random.nextInt(STREETS.length)] + " " + (1 + random.nextInt(200)) + "-" + (1 + random.nextInt(30)));
+        row.setZipcode(String.format("%05d", 1000 + random.nextInt(62000)));
+        return row;
+    }
+
+    /**
+     * 생성하는 회원 코드에 맞는 공통코드 (학과 10, 전공 30, 학년 4, 학기 2, 학적상태 4)
+     */
+    public static List<CommonCode> commonCodes() {
+        List<CommonCode> codes = new ArrayList<>();
+        for (int i = 0; i < SUST_CDS.length; i++) {
+            codes.add(code(CodeGroup.SUST_CD, SUST_CDS[i], SUST_NAMES[i], i));
+            for (int j = 1; j <= 3; j++) {
+                codes.add(code(CodeGroup.MJR_CD, String.format("MJRCD%03d", i * 10 + j), SUST_NAMES[i] + " 전공" + j, i * 10 + j));
+            }
+        }
+        for (int grade = 1; grade <= 4; grade++) {
+            codes.add(code(CodeGroup.SHYS_CD, String.valueOf(grade), grade + "학년", grade));
+        }
+        for (int term = 1; term <= 2; term++) {
+            codes.add(code(CodeGroup.SHTM_CD, String.valueOf(term), term + "학기", term));
+        }
+        for (int i = 0; i < FIN_SCHREG_DIV_CDS.length; i++) {
+            codes.add(code(CodeGroup.FIN_SCHREG_DIV_CD, FIN_SCHREG_DIV_CDS[i], FIN_SCHREG_DIV_NAMES[i], i));
+        }
+        return codes;
+    }
+
+    private static CommonCode code(CodeGroup group, String code, String codeName, int sortOrder) {
+        return CommonCode.builder().codeGroup(group).code(code).codeName(codeName).sortOrder(sortOrder).used(true).build();
+    }
+
+    private String syllable() {
+        return NAME_SYLLABLES[random.nextInt(NAME_SYLLABLES.length)];
+    }
+
+    private int pick(int[] weights) {
+        int total = 0;
+        for (int weight : weights) {
+            total += weight;
+        }
+        int value = random.nextInt(total);
+        for (int i = 0; i < weights.length; i++) {
+            value -= weights[i];
+            if (value < 0) {
+                return i;
+            }
+        }
+        return weights.length - 1;
+    }
+}
@@ -0,0 +1,233 @@
+package restful.demo.api.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import restful.demo.api.concurrency.OverloadedException;
+import restful.demo.api.entity.Member;
+import restful.demo.api.repository.MemberRepository;
+import restful.demo.api.shard.ShardedMemberRepository;
+
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * 회원 단건 조회 요청을 모아서 한 번의 IN 쿼리(findAllById)로 처리한다
+ *  - single-flight : 같은 id 를 동시에 조회하면 진행 중인 DB 조회 하나를 같이 기다린다
+ *  - batching      : window 안에 들어온 서로 다른 id 들은 하나의 findAllById 로 묶는다 (maxBatch 건이 차면 바로 실행)
+ * window 를 0 으로 두면 배칭 없이 single-flight 만 동작한다
+ *
+ * window 가 끝나서 실행하는 배치는 scheduler 스레드가 아니라 dispatch 스레드풀(커넥션 풀 크기, 대기열 제한)에서 조회한다
+ * (느린 배치 하나가 다른 배치를 막지 않게. 대기열이 차면 OverloadedException - 503)
+ * MemberQueryExecutor 스레드가 이 로더의 결과를 기다리므로 같은 풀을 쓰면 서로 기다리다 멈출 수 있어 풀을 따로 둔다
+ * member.shard.enabled=true 면 배치를 샤드별 IN 쿼리로 조회한다 (ShardedMemberRepository)
+ *
+ * 조회 결과는 MemberCache 에 다시 채워지므로 readOnly 트랜잭션(replica 로 라우팅)을 쓰지 않고 primary 에서 읽는다
+ * (변경으로 캐시를 지운 직후 아직 따라오지 못한 replica 를 읽으면 이전 값이 TTL 동안 다시 캐시된다)
+ */
+@Component
+public class MemberBatchLoader {
+
+    private final MemberRepository memberRepository;
+    private final ShardedMemberRepository shardedMemberRepository; // 샤딩을 켜지 않으면 null
+    private final TransactionTemplate primaryTransaction;
+    private final long windowMillis;
+    private final int maxBatch;
+
+    private final ConcurrentHashMap<Long, CompletableFuture<Member>> inFlight = new ConcurrentHashMap<>();
+    private final Object pendingLock = new Object();
+    private List<Long> pending = new ArrayList<>();
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "member-batch-loader");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final ThreadPoolTaskExecutor dispatcher = new ThreadPoolTaskExecutor();
+
+    private final Counter requests;
+    private final Counter coalesced;
+    private final Counter batches;
+
+    @Autowired
+    public MemberBatchLoader(MemberRepository memberRepository,
+                             ObjectProvider<ShardedMemberRepository> shardedMemberRepository,
+                             PlatformTransactionManager transactionManager,
+                             MeterRegistry meterRegistry,
+                             @Value("${member.coalesce.window-millis:2}") long windowMillis,
+                             @Value("${member.coalesce.max-batch:100}") int maxBatch,
+                             @Value("${spring.datasource.hikari.maximum-pool-size:10}") int dispatchThreads,
+                             @Value("${member.coalesce.queue-capacity:100}") int queueCapacity) {
+        this(memberRepository, shardedMemberRepository.getIfAvailable(), transactionManager, meterRegistry,
+                windowMillis, maxBatch, dispatchThreads, queueCapacity);
+    }
+
+    MemberBatchLoader(MemberRepository memberRepository, PlatformTransactionManager transactionManager, MeterRegistry meterRegistry,
+                      long windowMillis, int maxBatch, int dispatchThreads, int queueCapacity) {
+        this(memberRepository, (ShardedMemberRepository) null, transactionManager, meterRegistry,
+                windowMillis, maxBatch, dispatchThreads, queueCapacity);
+    }
+
+    private MemberBatchLoader(MemberRepository memberRepository, ShardedMemberRepository shardedMemberRepository,
+                              PlatformTransactionManager transactionManager, MeterRegistry meterRegistry,
+                              long windowMillis, int maxBatch, int dispatchThreads, int queueCapacity) {
+        this.dispatcher.setCorePoolSize(dispatchThreads);
+        this.dispatcher.setMaxPoolSize(dispatchThreads);
+        this.dispatcher.setQueueCapacity(queueCapacity);
+        this.dispatcher.setThreadNamePrefix("member-batch-dispatch-");
+        this.dispatcher.initialize();
+        this.memberRepository = memberRepository;
+        this.shardedMemberRepository = shardedMemberRepository;
+        this.primaryTransaction = new TransactionTemplate(transactionManager);
+        this.windowMillis = windowMillis;
+        this.maxBatch = maxBatch;
+        this.requests = meterRegistry.counter("member.loader.requests");
+        this.coalesced = meterRegistry.counter("member.loader.coalesced");
+        this.batches = meterRegistry.counter("member.loader.batches");
+    }
+
+    public Member load(Long id) {
+        return join(loadAsync(id));
+    }
+
+    /**
+     * 여러 id 를 한 번에 조회 - window 를 기다리지 않고 바로 실행한다 (없는 id 는 결과에서 빠짐)
+     */
+    public Map<Long, Member> loadAll(Collection<Long> ids) {
+        List<CompletableFuture<Member>> futures = ids.stream().map(this::enqueue).collect(Collectors.toList());
+        flush();
+        return futures.stream()
+                .map(this::join)
+                .filter(member -> member != null)
+                .collect(Collectors.toMap(Member::getId, Function.identity(), (a, b) -> a));
+    }
+
+    public CompletableFuture<Member> loadAsync(Long id) {
+        CompletableFuture<Member> future = enqueue(id);
+        if (windowMillis <= 0) {
+            flush();
+        }
+        return future;
+    }
+
+    private CompletableFuture<Member> enqueue(Long id) {
+        requests.increment();
+        CompletableFuture<Member> created = new CompletableFuture<>();
+        CompletableFuture<Member> existing = inFlight.putIfAbsent(id, created);
+        if (existing != null) {
+            coalesced.increment();
+            return existing;
+        }
+        List<Long> full = null;
+        synchronized (pendingLock) {
+            pending.add(id);
+            if (pending.size() >= maxBatch) {
+                full = takePending();
+            } else if (pending.size() == 1 && windowMillis > 0) {
+                scheduler.schedule(this::flushAsync, windowMillis, TimeUnit.MILLISECONDS);
+            }
+        }
+        if (full != null) {
+            dispatch(full);
+        }
+        return created;
+    }
+
+    public void flush() {
+        List<Long> ids;
+        synchronized (pendingLock) {
+            ids = takePending();
+        }
+        if (!ids.isEmpty()) {
+            dispatch(ids);
+        }
+    }
+
+    /**
+     * window 가 끝났을 때 - 조회는 dispatch 풀에 넘기고 scheduler 스레드는 바로 돌아간다
+     */
+    private void flushAsync() {
+        List<Long> ids;
+        synchronized (pendingLock) {
+            ids = takePending();
+        }
+        if (ids.isEmpty()) {
+            return;
+        }
+        try {
+            dispatcher.execute(() -> dispatch(ids));
+        } catch (RejectedExecutionException e) {
+            fail(ids, new OverloadedException("회원 조회 요청이 많아 처리할 수 없습니다. 잠시 후 다시 시도해 주세요."));
+        }
+    }
+
+    private List<Long> takePending() {
+        List<Long> ids = pending;
+        pending = new ArrayList<>();
+        return ids;
+    }
+
+    private void dispatch(List<Long> ids) {
+        batches.increment();
+        try {
+            List<Member> found = shardedMemberRepository != null ? shardedMemberRepository.findAllById(ids)
+                    : primaryTransaction.execute(status -> memberRepository.findAllById(ids));
+            Map<Long, Member> byId = found == null ? Collections.emptyMap()
+                    : found.stream().collect(Collectors.toMap(Member::getId, Function.identity()));
+            for (Long id : ids) {
+                // 먼저 inFlight 에서 빼야 완료 이후 요청은 새로 조회한다
+                CompletableFuture<Member> future = inFlight.remove(id);
+                if (future != null) {
+                    future.complete(byId.get(id));
+                }
+            }
+        } catch (RuntimeException e) {
+            fail(ids, e);
+        }
+    }
+
+    private void fail(List<Long> ids, RuntimeException e) {
+        for (Long id : ids) {
+            CompletableFuture<Member> future = inFlight.remove(id);
+            if (future != null) {
+                future.completeExceptionally(e);
+            }
+        }
+    }
+
+    private Member join(CompletableFuture<Member> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+        dispatcher.shutdown();
+    }
+}
@@ -0,0 +1,97 @@
+package restful.demo.api.service;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * 첫 줄을 헤더로 사용하는 CSV 를 한 행씩 읽어 헤더명 -> 값 맵으로 돌려준다
+ * 큰따옴표로 감싼 값 안의 쉼표/줄바꿈, "" 이스케이프를 지원한다 (빈 값은 맵에 넣지 않음)
+ */
+class MemberCsvReader implements Iterator<Map<String, String>> {
+
+    private final Reader reader;
+    private final List<String> header;
+    private List<String> next;
+
+    MemberCsvReader(Reader reader) {
+        this.reader = reader;
+        this.header = readRecord();
+        if (header == null) {
+            throw new IllegalArgumentException("CSV 헤더가 없습니다.");
+        }
+        this.next = readRecord();
+    }
+
+    @Override
+    public boolean hasNext() {
+        return next != null;
+    }
+
+    @Override
+    public Map<String, String> next() {
+        if (next == null) {
+            throw new NoSuchElementException();
+        }
+        Map<String, String> row = new LinkedHashMap<>();
+        for (int i = 0; i < header.size() && i < next.size(); i++) {
+            String value = next.get(i);
+            if (!value.isEmpty()) {
+                row.put(header.get(i).trim(), value);
+            }
+        }
+        next = readRecord();
+        return row;
+    }
+
+    private List<String> readRecord() {
+        try {
+            List<String> values = new ArrayList<>();
+            StringBuilder value = new StringBuilder();
+            boolean quoted = false;
+            int c = reader.read();
+            if (c == -1) {
+                return null;
+            }
+            while (c != -1) {
+                if (quoted) {
+                    if (c == '"') {
+                        reader.mark(1);
+                        int peek = reader.read();
+                        if (peek == '"') {
+                            value.append('"');
+                        } else {
+                            quoted = false;
+                            reader.reset();
+                        }
+                    } else {
+                        value.append((char) c);
+                    }
+                } else if (c == '"') {
+                    quoted = true;
+                } else if (c == ',') {
+                    values.add(value.toString());
+                    value.setLength(0);
+                } else if (c == '\n') {
+                    break;
+                } else if (c != '\r') {
+                    value.append((char) c);
+                }
+                c = reader.read();
+            }
+            values.add(value.toString());
+            if (values.size() == 1 && values.get(0).isEmpty()) {
+                return c == -1 ? null : readRecord(); // 빈 줄은 건너뛴다
+            }
+            return values;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package restful.demo.api.service;
+
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import restful.demo.api.dto.ImportResult;
+import restful.demo.api.dto.MemberImportRow;
+import restful.demo.api.entity.Member;
+import restful.demo.api.shard.ShardedMemberRepository;
+
+import javax.persistence.EntityManager;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 학기 초 대량 회원 등록
+ * 입력을 한 줄씩 읽으면서 batchSize 건마다 flush -> clear -> 커밋 하므로
+ * 입력 크기와 상관없이 메모리에는 한 배치만 올라간다
+ * (중간에 실패하면 이미 커밋된 배치는 그대로 남는다)
+ * member.shard.enabled=true 면 배치마다 ShardedMemberRepository.insertAll 로 샤드별 batch insert
+ */
+@Slf4j
+@Service
+public class MemberImportService {
+
+    private final EntityManager em;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final ShardedMemberRepository shardedMemberRepository; // 샤딩을 켜지 않으면 null
+    private final int defaultBatchSize;
+
+    public MemberImportService(EntityManager em,
+                               PlatformTransactionManager transactionManager,
+                               ObjectMapper objectMapper,
+                               ObjectProvider<ShardedMemberRepository> shardedMemberRepository,
+                               @Value("${member.import.batch-size:1000}") int defaultBatchSize) {
+        this.em = em;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.objectMapper = objectMapper;
+        this.shardedMemberRepository = shardedMemberRepository.getIfAvailable();
+        this.defaultBatchSize = defaultBatchSize;
+    }
+
+    public ImportResult importNdjson(InputStream in, Integer batchSize) throws IOException {
+        try (MappingIterator<MemberImportRow> rows = objectMapper.readerFor(MemberImportRow.class).readValues(in)) {
+            return importRows(rows, batchSize);
+        }
+    }
+
+    public ImportResult importCsv(InputStream in, Integer batchSize) {
+        MemberCsvReader csv = new MemberCsvReader(new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8)));
+        Iterator<MemberImportRow> rows = new Iterator<MemberImportRow>() {
+            @Override
+            public boolean hasNext() {
+                return csv.hasNext();
+            }
+
+            @Override
+            public MemberImportRow next() {
+                Map<String, String> row = csv.next();
+                return objectMapper.convertValue(row, MemberImportRow.class);
+            }
+        };
+        return importRows(rows, batchSize);
+    }
+
+    public ImportResult importRows(Iterator<MemberImportRow> rows, Integer batchSize) {
+        int size = batchSize == null || batchSize <= 0 ? defaultBatchSize : batchSize;
+        long start = System.nanoTime();
+        long total = 0;
+        long batches = 0;
+        while (rows.hasNext()) {
+            total += shardedMemberRepository != null ? insertShardBatch(rows, size)
+                    : transactionTemplate.execute(status -> insertBatch(rows, size));
+            batches++;
+        }
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+        ImportResult result = new ImportResult(total, batches, elapsedMillis);
+        log.info("member import finished. rows={}, batches={}, elapsed={}ms, rows/sec={}",
+                result.getRows(), result.getBatches(), result.getElapsedMillis(), result.getRowsPerSecond());
+        return result;
+    }
+
+    private int insertBatch(Iterator<MemberImportRow> rows, int size) {
+        int count = 0;
+        while (count < size && rows.hasNext()) {
+            em.persist(rows.next().toEntity());
+            count++;
+        }
+        em.flush();
+        em.clear();
+        return count;
+    }
+
+    private int insertShardBatch(Iterator<MemberImportRow> rows, int size) {
+        List<Member> batch = new ArrayList<>(size);
+        while (batch.size() < size && rows.hasNext()) {
+            batch.add(rows.next().toEntity());
+        }
+        shardedMemberRepository.insertAll(batch);
+        return batch.size();
+    }
+}
@@ -1,23 +1,203 @@
 package restful.demo.api.service;
 
-import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import restful.demo.api.cache.MemberCache;
+import restful.demo.api.dto.MemberField;
+import restful.demo.api.dto.MemberSearchCondition;
+import restful.demo.api.dto.MemberSummary;
+import restful.demo.api.entity.Address;
 import restful.demo.api.entity.Member;
+import restful.demo.api.entity.MemberTombstone;
 import restful.demo.api.repository.MemberRepository;
+import restful.demo.api.repository.MemberSpecifications;
+import restful.demo.api.repository.MemberTombstoneRepository;
+import restful.demo.api.repository.MemberVersionCounter;
+import restful.demo.api.shard.ShardedMemberRepository;
 
+import javax.persistence.EntityManager;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
+/**
+ * member.shard.enabled=true 면 회원 조회/변경은 member 테이블 대신 ShardedMemberRepository(입학년도 샤드)로 간다
+ * (캐시, 동시 요청 병합은 그대로 앞에 두고 tombstone 은 기본 DB 에 남긴다)
+ */
 @Service
-@RequiredArgsConstructor
+@Transactional(readOnly = true)
 public class MemberService {
 
+    public static final int MAX_PAGE_SIZE = 1000;
+
     private final MemberRepository memberRepository;
+    private final MemberTombstoneRepository memberTombstoneRepository;
+    private final MemberCache memberCache;
+    private final MemberBatchLoader memberBatchLoader;
+    private final MemberVersionCounter memberVersionCounter;
+    private final EntityManager em;
+    private final ShardedMemberRepository shardedMemberRepository; // 샤딩을 켜지 않으면 null
+
+    public MemberService(MemberRepository memberRepository,
+                         MemberTombstoneRepository memberTombstoneRepository,
+                         MemberCache memberCache,
+                         MemberBatchLoader memberBatchLoader,
+                         MemberVersionCounter memberVersionCounter,
+                         EntityManager em,
+                         ObjectProvider<ShardedMemberRepository> shardedMemberRepository) {
+        this.memberRepository = memberRepository;
+        this.memberTombstoneRepository = memberTombstoneRepository;
+        this.memberCache = memberCache;
+        this.memberBatchLoader = memberBatchLoader;
+        this.memberVersionCounter = memberVersionCounter;
+        this.em = em;
+        this.shardedMemberRepository = shardedMemberRepository.getIfAvailable();
+    }
 
     public List<Member> findAll() {
+        if (shardedMemberRepository != null) {
+            return shardedMemberRepository.findAll();
+        }
         return memberRepository.findAll();
     }
 
+    /**
+     * 캐시 -> MemberBatchLoader(동시 요청 병합) 순으로 조회
+     * 로더가 자기 트랜잭션으로 조회하므로 여기서는 트랜잭션(커넥션)을 잡지 않는다
+     */
+    @Transactional(propagation = Propagation.SUPPORTS)
     public Member findMemberOne(long id) {
-        return memberRepository.findByMemberOne(id);
+        return memberCache.get(id, memberBatchLoader::load);
+    }
+
+    /**
+     * id 목록 조회 - 캐시에 없는 id 만 모아서 IN 쿼리 한 번으로 조회, 요청한 id 순서대로 반환
+     */
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public List<Member> findMembers(List<Long> ids) {
+        if (ids.size() > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("한 번에 조회할 수 있는 id 는 " + MAX_PAGE_SIZE + "개 까지입니다.");
+        }
+        if (ids.contains(null)) {
+            throw new IllegalArgumentException("ids 에 빈 값이 있습니다. (예: ids=1,2,3)");
+        }
+        Map<Long, Member> found = memberCache.getAll(new LinkedHashSet<>(ids), memberBatchLoader::loadAll);
+        return ids.stream()
+                .map(found::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+
+    @Transactional
+    public Member save(Member member) {
+        if (shardedMemberRepository != null) {
+            return shardedMemberRepository.insert(member);
+        }
+        return memberRepository.save(member);
+    }
+
+    /**
+     * 주소 변경 - dirty checking 으로 반영되고 커밋 후 MemberCache 에서 무효화된다
+     */
+    @Transactional
+    public Member changeAddress(long id, Address address) {
+        if (shardedMemberRepository != null) {
+            Member changed = shardedMemberRepository.changeAddress(id, address);
+            if (changed == null) {
+                throw new IllegalArgumentException("존재하지 않는 회원입니다. id=" + id);
+            }
+            return changed;
+        }
+        Member member = memberRepository.findById(id)
+                .orElseThrow(() -> new IllegalArgumentException("존재하지 않는 회원입니다. id=" + id));
+        member.changeAddress(address);
+        return member;
+    }
+
+    /**
+     * 회원 삭제 - 변경분 동기화에서 삭제를 알 수 있도록 tombstone 을 같이 남긴다
+     * tombstone 은 기본 DB 트랜잭션의 회원 변경 버전을 받는다 (샤딩이어도 tombstone 은 기본 DB)
+     */
+    @Transactional
+    public void delete(long id) {
+        Member member;
+        if (shardedMemberRepository != null) {
+            member = shardedMemberRepository.delete(id);
+            if (member == null) {
+                throw new IllegalArgumentException("존재하지 않는 회원입니다. id=" + id);
+            }
+        } else {
+            member = memberRepository.findById(id)
+                    .orElseThrow(() -> new IllegalArgumentException("존재하지 않는 회원입니다. id=" + id));
+            memberRepository.delete(member);
+        }
+        memberTombstoneRepository.save(new MemberTombstone(member.getId(), member.getStuNo(), System.currentTimeMillis(),
+                memberVersionCounter.next()));
+    }
+
+    public MemberCache.Stats cacheStats() {
+        return memberCache.stats();
+    }
+
+    private int pageSize(int size) {
+        return Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+    }
+
+    /**
+     * lastId 이후의 회원을 id 순으로 size 만큼 조회 (첫 페이지는 lastId = 0)
+     */
+    public List<Member> findPageAfter(long lastId, int size) {
+        if (shardedMemberRepository != null) {
+            return shardedMemberRepository.findPageAfter(lastId, pageSize(size));
+        }
+        return memberRepository.findPageAfter(lastId, PageRequest.of(0, pageSize(size)));
+    }
+
+    public List<MemberSummary> findSummaryPageAfter(long lastId, int size) {
+        if (shardedMemberRepository != null) {
+            return shardedMemberRepository.findSummaryPageAfter(lastId, pageSize(size));
+        }
+        return memberRepository.findSummaryPageAfter(lastId, PageRequest.of(0, pageSize(size)));
+    }
+
+    public List<Map<String, Object>> findFieldsPageAfter(List<MemberField> fields, long lastId, int size) {
+        if (shardedMemberRepository != null) {
+            return shardedMemberRepository.findFieldsPageAfter(fields, lastId, pageSize(size));
+        }
+        return memberRepository.findFieldsPageAfter(fields, lastId, pageSize(size));
+    }
+
+    public Page<Member> search(MemberSearchCondition condition, Pageable pageable) {
+        Pageable page = PageRequest.of(pageable.getPageNumber(), pageSize(pageable.getPageSize()), pageable.getSort());
+        if (shardedMemberRepository != null) {
+            return shardedMemberRepository.search(condition, page);
+        }
+        return memberRepository.findAll(MemberSpecifications.search(condition), page);
+    }
+
+    /**
+     * 전체 회원을 한 건씩 consumer 로 넘긴다. (순서는 정하지 않음 - 샤딩이면 샤드 하나씩)
+     * 넘긴 엔티티는 바로 detach 해서 영속성 컨텍스트가 테이블 크기만큼 커지지 않도록 한다.
+     */
+    public void streamAll(Consumer<Member> consumer) {
+        if (shardedMemberRepository != null) {
+            shardedMemberRepository.forEach(consumer);
+            return;
+        }
+        try (Stream<Member> members = memberRepository.streamAll()) {
+            members.forEach(member -> {
+                consumer.accept(member);
+                em.detach(member);
+            });
+        }
     }
 }
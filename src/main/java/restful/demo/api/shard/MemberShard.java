@@ -0,0 +1,45 @@
+package restful.demo.api.shard;
+
+import lombok.Getter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+
+/**
+ * 샤드 하나 - 담당하는 입학년도 구간과 그 DB
+ */
+@Getter
+public class MemberShard {
+
+    private final int index;
+    private final Integer fromYear; // null 이면 하한 없음
+    private final Integer toYear;   // null 이면 상한 없음
+    private final DataSource dataSource;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate; // 이 샤드 DB 만의 트랜잭션 (샤드끼리 묶이지 않음)
+
+    public MemberShard(int index, Integer fromYear, Integer toYear, DataSource dataSource) {
+        this.index = index;
+        this.fromYear = fromYear;
+        this.toYear = toYear;
+        this.dataSource = dataSource;
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+    }
+
+    public boolean contains(int enterYear) {
+        return (fromYear == null || fromYear <= enterYear) && (toYear == null || enterYear <= toYear);
+    }
+
+    boolean overlaps(MemberShard other) {
+        long from = Math.max(fromYear == null ? Long.MIN_VALUE : fromYear, other.fromYear == null ? Long.MIN_VALUE : other.fromYear);
+        long to = Math.min(toYear == null ? Long.MAX_VALUE : toYear, other.toYear == null ? Long.MAX_VALUE : other.toYear);
+        return from <= to;
+    }
+
+    public String getName() {
+        return "shard-" + index;
+    }
+}
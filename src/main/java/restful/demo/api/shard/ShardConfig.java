@@ -0,0 +1,48 @@
+package restful.demo.api.shard;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * member.shard.enabled=true 일 때 입학년도 샤드 저장소를 띄운다 - 회원 조회/변경이 member 테이블 대신 샤드로 간다
+ * 샤드 DataSource 는 빈으로 등록하지 않는다 (등록하면 spring.datasource 자동 설정이 꺼짐)
+ */
+@Configuration
+@ConditionalOnProperty(name = "member.shard.enabled", havingValue = "true")
+@EnableConfigurationProperties(ShardProperties.class)
+public class ShardConfig {
+
+    @Bean
+    public ShardedMemberRepository shardedMemberRepository(ShardProperties properties, ApplicationEventPublisher publisher) {
+        List<MemberShard> shards = new ArrayList<>();
+        for (int i = 0; i < properties.getNodes().size(); i++) {
+            ShardProperties.Node node = properties.getNodes().get(i);
+            shards.add(new MemberShard(i, node.getFromYear(), node.getToYear(), hikari("shard-" + i, node)));
+        }
+        ShardedMemberRepository repository = new ShardedMemberRepository(shards, properties.getQueryTimeout(), publisher);
+        if (properties.isInitSchema()) {
+            repository.initSchema();
+        }
+        return repository;
+    }
+
+    private HikariDataSource hikari(String name, ShardProperties.Node node) {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setPoolName(name);
+        dataSource.setJdbcUrl(node.getUrl());
+        dataSource.setUsername(node.getUsername());
+        dataSource.setPassword(node.getPassword());
+        if (node.getDriverClassName() != null) {
+            dataSource.setDriverClassName(node.getDriverClassName());
+        }
+        dataSource.setMaximumPoolSize(node.getMaximumPoolSize());
+        return dataSource;
+    }
+}
@@ -0,0 +1,35 @@
+package restful.demo.api.shard;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * member.shard.* - 입학년도 구간별 샤드 DB 목록
+ * fromYear/toYear 는 포함 구간이고 비워두면 그쪽으로 열린 구간 (구간이 겹치면 기동 실패)
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "member.shard")
+public class ShardProperties {
+
+    private List<Node> nodes = new ArrayList<>();
+    private boolean initSchema = true; // 기동 시 shard/member-schema.sql 실행
+    private Duration queryTimeout = Duration.ofSeconds(5);
+
+    @Getter
+    @Setter
+    public static class Node {
+        private Integer fromYear;
+        private Integer toYear;
+        private String url;
+        private String username;
+        private String password;
+        private String driverClassName;
+        private int maximumPoolSize = 10;
+    }
+}
@@ -0,0 +1,745 @@
+package restful.demo.api.shard;
+
+import lombok.AllArgsConstructor;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.util.StringUtils;
+import restful.demo.api.dto.MemberField;
+import restful.demo.api.dto.MemberProfileChange;
+import restful.demo.api.dto.MemberSearchCondition;
+import restful.demo.api.dto.MemberSummary;
+import restful.demo.api.entity.Address;
+import restful.demo.api.entity.Gender;
+import restful.demo.api.entity.Member;
+import restful.demo.api.event.MemberChangedEvent;
+import restful.demo.api.sync.SyncToken;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * 입학년도로 나눈 샤드 DB 들 위의 member 저장소 (JPA 를 거치지 않고 샤드마다 JdbcTemplate 사용)
+ * member.shard.enabled=true 면 MemberService, MemberBatchLoader, MemberSyncService 등이 member 테이블 대신 여기를 쓴다
+ *  - 등록 : enterYear 로 샤드 하나를 골라 insert (학번 앞 4자리가 입학년도와 다르면 거절)
+ *  - 단건 : 학번은 앞 4자리(=입학년도)로, id 는 끝 두 자리(샤드 번호)로 샤드 하나만 조회
+ *  - 목록/검색 : 대상 샤드에 동시에 같은 쿼리(조건 + 정렬 + limit)를 보내고 각 샤드 결과를 합쳐 정렬한 뒤 잘라서 돌려준다
+ *    (각 샤드 결과가 정렬되어 있으므로 전체 순서도 맞음) 검색 조건에 입학년도/학번이 있으면 해당 샤드에만 보낸다
+ *  - 등록/수정/삭제 후에는 MemberChangedEvent 를 발행한다 (캐시, 통계, 자동완성이 JPA 변경과 똑같이 갱신됨)
+ *
+ * id 는 (샤드의 id 블록 번호 * 100 + 샤드 번호) 라서 샤드끼리 겹치지 않고 id 만으로 샤드를 찾을 수 있다 (샤드는 최대 100개)
+ * id 블록은 등록 배치마다 샤드별로 한 번, member_id_block 의 값을 배치 건수만큼 올려서 받는다
+ * 쓰기는 샤드마다 한 트랜잭션이고 그 안에서 샤드의 member_version 을 올려 바뀐 행의 change_version 에 넣는다
+ * (ETag 와 변경분 동기화가 샤드 변경을 따라가는 기준 - 샤드 안에서 커밋 순서대로 커진다)
+ */
+@Slf4j
+public class ShardedMemberRepository implements DisposableBean {
+
+    public static final int SHARD_ID_STRIDE = 100;
+
+    private static final int SCAN_PAGE_SIZE = 500;
+    private static final String SEARCH_INDEX = "idx_member_enter_year_sust_mjr";
+    private static final String CHANGE_VERSION_INDEX = "idx_member_change_version"; // 변경분 동기화 (change_version, member_id) 순서
+
+    private static final String COLUMNS = "member_id, stu_no, enter_year, name, birth_md, sust_cd, mjr_cd, shys_cd, shtm_cd, "
+            + "fin_schreg_div_cd, cptn_shtm_cnt, email, gender, city, street, zipcode, changed_at, change_version";
+    private static final String SELECT = "select " + COLUMNS + " from member";
+    private static final String INSERT = "insert into member (" + COLUMNS + ") values (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String UPDATE_PROFILE = "update member set city = coalesce(?, city), street = coalesce(?, street), "
+            + "zipcode = coalesce(?, zipcode), email = coalesce(?, email), changed_at = ?, change_version = ? where member_id = ?";
+    private static final String VERSION_SQL = "select version from member_version where id = 1";
+
+    private static final RowMapper<Member> MEMBER_ROW_MAPPER = (rs, rowNum) -> {
+        String gender = rs.getString("gender");
+        String city = rs.getString("city");
+        String street = rs.getString("street");
+        String zipcode = rs.getString("zipcode");
+        return Member.builder()
+                .id(rs.getLong("member_id"))
+                .stuNo(rs.getString("stu_no"))
+                .enterYear(rs.getString("enter_year"))
+                .name(rs.getString("name"))
+                .birthMd(rs.getString("birth_md"))
+                .sustCd(rs.getString("sust_cd"))
+                .mjrCd(rs.getString("mjr_cd"))
+                .shysCd(rs.getString("shys_cd"))
+                .shtmCd(rs.getString("shtm_cd"))
+                .finSchregDivCd(rs.getString("fin_schreg_div_cd"))
+                .cptnShtmCnt(rs.getObject("cptn_shtm_cnt", Integer.class))
+                .email(rs.getString("email"))
+                .gender(gender == null ? null : Gender.valueOf(gender))
+                .address(city == null && street == null && zipcode == null ? null : new Address(city, street, zipcode))
+                .changedAt(rs.getObject("changed_at", Long.class))
+                .changeVersion(rs.getObject("change_version", Long.class))
+                .build();
+    };
+
+    // 검색 정렬에 쓸 수 있는 필드 -> 컬럼, 샤드 결과를 합칠 때의 비교 (DB 와 같이 null 이 가장 작은 값)
+    private static final Map<String, SortKey> SORT_KEYS = new HashMap<>();
+
+    static {
+        sortKey("id", "member_id", Member::getId);
+        sortKey("stuNo", "stu_no", Member::getStuNo);
+        sortKey("enterYear", "enter_year", Member::getEnterYear);
+        sortKey("name", "name", Member::getName);
+        sortKey("sustCd", "sust_cd", Member::getSustCd);
+        sortKey("mjrCd", "mjr_cd", Member::getMjrCd);
+        sortKey("shysCd", "shys_cd", Member::getShysCd);
+        sortKey("shtmCd", "shtm_cd", Member::getShtmCd);
+        sortKey("finSchregDivCd", "fin_schreg_div_cd", Member::getFinSchregDivCd);
+        sortKey("cptnShtmCnt", "cptn_shtm_cnt", Member::getCptnShtmCnt);
+        sortKey("changedAt", "changed_at", Member::getChangedAt);
+    }
+
+    private final List<MemberShard> shards;
+    private final ApplicationEventPublisher publisher;
+    private final ExecutorService executor;
+
+    public ShardedMemberRepository(List<MemberShard> shards, Duration queryTimeout, ApplicationEventPublisher publisher) {
+        if (shards.isEmpty() || shards.size() > SHARD_ID_STRIDE) {
+            throw new IllegalStateException("샤드는 1 ~ " + SHARD_ID_STRIDE + " 개여야 합니다. shards=" + shards.size());
+        }
+        for (int i = 0; i < shards.size(); i++) {
+            for (int j = i + 1; j < shards.size(); j++) {
+                if (shards.get(i).overlaps(shards.get(j))) {
+                    throw new IllegalStateException("입학년도 구간이 겹칩니다. " + shards.get(i).getName() + ", " + shards.get(j).getName());
+                }
+            }
+            shards.get(i).getJdbcTemplate().setQueryTimeout((int) queryTimeout.getSeconds());
+        }
+        this.shards = shards;
+        this.publisher = publisher;
+        AtomicInteger threads = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(shards.size() * 2, runnable -> {
+            Thread thread = new Thread(runnable, "member-shard-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * 샤드마다 member-schema.sql 을 실행하고 검색/변경분 인덱스와 id 블록, 변경 버전 첫 행이 없으면 만든다
+     */
+    public void initSchema() {
+        ResourceDatabasePopulator populator = new ResourceDatabasePopulator(new ClassPathResource("shard/member-schema.sql"));
+        for (MemberShard shard : shards) {
+            populator.execute(shard.getDataSource());
+            JdbcTemplate jdbcTemplate = shard.getJdbcTemplate();
+            if (!hasColumn(jdbcTemplate, "change_version")) { // change_version 이 생기기 전에 만든 샤드
+                jdbcTemplate.execute("alter table member add column change_version bigint");
+            }
+            jdbcTemplate.update("update member set change_version = 0 where change_version is null");
+            if (!hasIndex(jdbcTemplate, SEARCH_INDEX)) {
+                jdbcTemplate.execute("create index " + SEARCH_INDEX + " on member (enter_year, sust_cd, mjr_cd)");
+            }
+            if (!hasIndex(jdbcTemplate, CHANGE_VERSION_INDEX)) {
+                jdbcTemplate.execute("create index " + CHANGE_VERSION_INDEX + " on member (change_version, member_id)");
+            }
+            Integer blocks = jdbcTemplate.queryForObject("select count(*) from member_id_block", Integer.class);
+            if (blocks == null || blocks == 0) {
+                jdbcTemplate.update("insert into member_id_block (id, next_value) values (1, 1)");
+            }
+            Integer versions = jdbcTemplate.queryForObject("select count(*) from member_version", Integer.class);
+            if (versions == null || versions == 0) {
+                jdbcTemplate.update("insert into member_version (id, version) values (1, 0)");
+            }
+        }
+        log.info("member shard schema initialized. shards={}", shards.size());
+    }
+
+    public List<MemberShard> getShards() {
+        return shards;
+    }
+
+    public MemberShard shardOf(String enterYear) {
+        int year = parseYear(enterYear);
+        return shards.stream()
+                .filter(shard -> shard.contains(year))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("입학년도를 담당하는 샤드가 없습니다. enterYear=" + enterYear));
+    }
+
+    public Member insert(Member member) {
+        return insertAll(Collections.singletonList(member)).get(0);
+    }
+
+    /**
+     * 샤드별로 나눠 id 블록을 한 번 받고 batch insert (샤드끼리는 동시에 실행) - 입력 순서대로 저장된 회원을 돌려준다
+     * 샤드마다 따로 커밋되므로 일부 샤드만 실패할 수 있다 (성공한 샤드의 회원은 이벤트가 발행됨)
+     */
+    public List<Member> insertAll(List<Member> members) {
+        Map<MemberShard, List<Integer>> byShard = new LinkedHashMap<>();
+        for (int i = 0; i < members.size(); i++) {
+            Member member = members.get(i);
+            checkStuNo(member);
+            byShard.computeIfAbsent(shardOf(member.getEnterYear()), shard -> new ArrayList<>()).add(i);
+        }
+        long changedAt = System.currentTimeMillis();
+        Member[] saved = new Member[members.size()];
+        fanOut(new ArrayList<>(byShard.keySet()), shard -> {
+            List<Integer> positions = byShard.get(shard);
+            long first = allocateIds(shard, positions.size());
+            List<Member> rows = shard.getTransactionTemplate().execute(status -> {
+                long version = nextVersion(shard);
+                List<Member> stamped = new ArrayList<>(positions.size());
+                for (int i = 0; i < positions.size(); i++) {
+                    long id = (first + i) * SHARD_ID_STRIDE + shard.getIndex();
+                    stamped.add(withId(members.get(positions.get(i)), id, changedAt, version));
+                }
+                shard.getJdbcTemplate().batchUpdate(INSERT, stamped, stamped.size(), ShardedMemberRepository::bindInsert);
+                return stamped;
+            });
+            for (int i = 0; i < positions.size(); i++) {
+                saved[positions.get(i)] = rows.get(i);
+            }
+            rows.forEach(member -> publish(MemberChangedEvent.Type.SAVED, member));
+            return null;
+        });
+        return Arrays.asList(saved);
+    }
+
+    /**
+     * 주소 변경 (주소 전체를 바꿈) - 바뀐 회원, 없는 회원이면 null
+     */
+    public Member changeAddress(long id, Address address) {
+        MemberShard shard = shardOfId(id);
+        if (shard == null) {
+            return null;
+        }
+        Member member = shard.getTransactionTemplate().execute(status -> {
+            long version = nextVersion(shard);
+            int updated = shard.getJdbcTemplate().update(
+                    "update member set city = ?, street = ?, zipcode = ?, changed_at = ?, change_version = ? where member_id = ?",
+                    address.getCity(), address.getStreet(), address.getZipcode(), System.currentTimeMillis(), version, id);
+            if (updated == 0) {
+                status.setRollbackOnly(); // 없는 회원이면 버전도 그대로
+                return null;
+            }
+            return first(shard, SELECT + " where member_id = ?", id);
+        });
+        if (member == null) {
+            return null;
+        }
+        publish(MemberChangedEvent.Type.SAVED, member);
+        return member;
+    }
+
+    /**
+     * 주소/이메일 일괄 변경 (null 인 필드는 그대로) - 샤드마다 한 트랜잭션에서 batch update 후 다시 읽은 회원을 돌려준다
+     * 결과에 없는 id 는 없는 회원이다
+     */
+    public List<Member> changeProfiles(Map<Long, MemberProfileChange> changes, long changedAt) {
+        Map<MemberShard, List<Long>> byShard = groupByShard(changes.keySet());
+        return fanOut(new ArrayList<>(byShard.keySet()), shard -> {
+            List<Long> ids = byShard.get(shard);
+            List<Member> changed = shard.getTransactionTemplate().execute(status -> {
+                long version = nextVersion(shard);
+                shard.getJdbcTemplate().batchUpdate(UPDATE_PROFILE, ids, ids.size(), (ps, id) -> {
+                    MemberProfileChange change = changes.get(id);
+                    ps.setString(1, change.getCity());
+                    ps.setString(2, change.getStreet());
+                    ps.setString(3, change.getZipcode());
+                    ps.setString(4, change.getEmail());
+                    ps.setLong(5, changedAt);
+                    ps.setLong(6, version);
+                    ps.setLong(7, id);
+                });
+                return findAllById(shard, ids);
+            });
+            changed.forEach(member -> publish(MemberChangedEvent.Type.SAVED, member));
+            return changed;
+        }).stream().flatMap(List::stream).collect(Collectors.toList());
+    }
+
+    /**
+     * 삭제 - 삭제한 회원, 없는 회원이면 null
+     */
+    public Member delete(long id) {
+        MemberShard shard = shardOfId(id);
+        if (shard == null) {
+            return null;
+        }
+        Member member = shard.getTransactionTemplate().execute(status -> {
+            Member found = first(shard, SELECT + " where member_id = ?", id);
+            if (found == null) {
+                return null;
+            }
+            nextVersion(shard);
+            return shard.getJdbcTemplate().update("delete from member where member_id = ?", id) == 0 ? null : found;
+        });
+        if (member == null) {
+            return null;
+        }
+        publish(MemberChangedEvent.Type.DELETED, member);
+        return member;
+    }
+
+    /**
+     * id 끝 두 자리로 샤드를 찾아 조회 (없으면 null)
+     */
+    public Member findById(long id) {
+        MemberShard shard = shardOfId(id);
+        return shard == null ? null : first(shard, SELECT + " where member_id = ?", id);
+    }
+
+    /**
+     * 학번 앞 4자리(입학년도)로 샤드를 찾아 조회 (없으면 null)
+     */
+    public Member findByStuNo(String stuNo) {
+        if (stuNo == null || stuNo.length() < 4) {
+            return null;
+        }
+        List<MemberShard> targets = shardsContaining(stuNo.substring(0, 4));
+        return targets.isEmpty() ? null : first(targets.get(0), SELECT + " where stu_no = ?", stuNo);
+    }
+
+    /**
+     * id 목록 조회 - 샤드별로 IN 쿼리 한 번씩 (없는 id 는 결과에서 빠지고 순서는 보장하지 않음)
+     */
+    public List<Member> findAllById(Collection<Long> ids) {
+        Map<MemberShard, List<Long>> byShard = groupByShard(ids);
+        return fanOut(new ArrayList<>(byShard.keySet()), shard -> findAllById(shard, byShard.get(shard))).stream()
+                .flatMap(List::stream)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * 전체 회원을 id 순으로
+     */
+    public List<Member> findAll() {
+        return merge(shards, shard -> shard.getJdbcTemplate().query(SELECT + " order by member_id", MEMBER_ROW_MAPPER),
+                Comparator.comparing(Member::getId), Long.MAX_VALUE);
+    }
+
+    /**
+     * 모든 샤드에서 lastId 이후 size 건씩 읽어 id 순으로 합친다
+     */
+    public List<Member> findPageAfter(long lastId, int size) {
+        String sql = SELECT + " where member_id > ? order by member_id limit ?";
+        return merge(shards, shard -> shard.getJdbcTemplate().query(sql, MEMBER_ROW_MAPPER, lastId, size),
+                Comparator.comparing(Member::getId), size);
+    }
+
+    public List<MemberSummary> findSummaryPageAfter(long lastId, int size) {
+        return findPageAfter(lastId, size).stream().map(SummaryRow::new).collect(Collectors.toList());
+    }
+
+    /**
+     * 선택한 컬럼만 읽어 id 순으로 합친다 (키는 MemberField 이름)
+     */
+    public List<Map<String, Object>> findFieldsPageAfter(List<MemberField> fields, long lastId, int size) {
+        String columns = fields.stream().map(ShardedMemberRepository::column).collect(Collectors.joining(", "));
+        String sql = "select member_id, " + columns + " from member where member_id > ? order by member_id limit ?";
+        List<Map<String, Object>> rows = merge(shards, shard -> shard.getJdbcTemplate().queryForList(sql, lastId, size),
+                Comparator.comparing((Map<String, Object> row) -> ((Number) row.get("member_id")).longValue()), size);
+        List<Map<String, Object>> result = new ArrayList<>(rows.size());
+        for (Map<String, Object> row : rows) {
+            Map<String, Object> selected = new LinkedHashMap<>();
+            for (MemberField field : fields) {
+                selected.put(field.getName(), row.get(column(field)));
+            }
+            result.add(selected);
+        }
+        return result;
+    }
+
+    /**
+     * 전체 회원을 샤드 하나씩, 샤드 안에서는 id 순으로 한 페이지씩 읽어 consumer 로 넘긴다 (메모리에는 한 페이지만)
+     * 샤드를 합친 id 순서는 맞추지 않는다 - 페이지마다 모든 샤드를 읽고 한 샤드 몫만 남기는 낭비가 없다
+     */
+    public void forEach(Consumer<Member> consumer) {
+        String sql = SELECT + " where member_id > ? order by member_id limit ?";
+        for (MemberShard shard : shards) {
+            long lastId = 0;
+            List<Member> page;
+            do {
+                page = shard.getJdbcTemplate().query(sql, MEMBER_ROW_MAPPER, lastId, SCAN_PAGE_SIZE);
+                page.forEach(consumer);
+                if (!page.isEmpty()) {
+                    lastId = page.get(page.size() - 1).getId();
+                }
+            } while (page.size() == SCAN_PAGE_SIZE);
+        }
+    }
+
+    /**
+     * 검색 - 대상 샤드마다 (offset + size) 건을 같은 정렬로 읽어 합친 뒤 offset 부터 size 건
+     * 정렬이 같은 값이면 id 순 (샤드를 합쳐도 페이지 경계가 흔들리지 않게)
+     */
+    public Page<Member> search(MemberSearchCondition condition, Pageable pageable) {
+        StringBuilder where = new StringBuilder(" from member where 1 = 1");
+        List<Object> args = new ArrayList<>();
+        addEqual(where, args, "stu_no", condition.getStuNo());
+        addEqual(where, args, "enter_year", condition.getEnterYear());
+        addEqual(where, args, "sust_cd", condition.getSustCd());
+        addEqual(where, args, "mjr_cd", condition.getMjrCd());
+        addEqual(where, args, "shys_cd", condition.getShysCd());
+        addEqual(where, args, "shtm_cd", condition.getShtmCd());
+        addEqual(where, args, "fin_schreg_div_cd", condition.getFinSchregDivCd());
+
+        List<String> orderBy = new ArrayList<>();
+        Comparator<Member> order = null;
+        for (Sort.Order sortOrder : pageable.getSort().and(Sort.by("id"))) {
+            SortKey key = SORT_KEYS.get(sortOrder.getProperty());
+            if (key == null) {
+                throw new IllegalArgumentException("정렬할 수 없는 필드입니다. sort=" + sortOrder.getProperty());
+            }
+            orderBy.add(key.column + (sortOrder.isAscending() ? "" : " desc"));
+            Comparator<Member> next = sortOrder.isAscending() ? key.comparator : key.comparator.reversed();
+            order = order == null ? next : order.thenComparing(next);
+        }
+
+        List<MemberShard> targets = targetShards(condition);
+        long limit = pageable.getOffset() + pageable.getPageSize();
+        String query = "select " + COLUMNS + where + " order by " + String.join(", ", orderBy) + " limit ?";
+        List<Object> queryArgs = new ArrayList<>(args);
+        queryArgs.add(limit);
+        Object[] params = queryArgs.toArray();
+        List<Member> merged = merge(targets, shard -> shard.getJdbcTemplate().query(query, MEMBER_ROW_MAPPER, params), order, limit);
+        List<Member> content = merged.stream().skip(pageable.getOffset()).collect(Collectors.toList());
+
+        String count = "select count(*)" + where;
+        Object[] countParams = args.toArray();
+        return PageableExecutionUtils.getPage(content, pageable, () -> fanOut(targets,
+                shard -> shard.getJdbcTemplate().queryForObject(count, Long.class, countParams))
+                .stream().mapToLong(Long::longValue).sum());
+    }
+
+    /**
+     * 변경분 동기화 - 샤드마다 그 샤드의 위치(cursors 의 같은 순번) 이후를 (changeVersion, id) 순서로 size 건씩
+     * 샤드 버전끼리는 비교할 수 없으므로 합치지 않고 샤드 순서대로 돌려준다
+     */
+    public List<List<Member>> findChangedAfter(List<SyncToken.Cursor> cursors, int size) {
+        String sql = SELECT + " where change_version > ? or (change_version = ? and member_id > ?) order by change_version, member_id limit ?";
+        return fanOut(shards, shard -> {
+            SyncToken.Cursor cursor = cursors.get(shard.getIndex());
+            return shard.getJdbcTemplate().query(sql, MEMBER_ROW_MAPPER, cursor.getVersion(), cursor.getVersion(), cursor.getLastId(), size);
+        });
+    }
+
+    /**
+     * 샤드마다 커밋된 변경 버전 (MemberTableVersion 의 ETag 재료) - 한 행을 읽으므로 테이블 크기와 상관없다
+     */
+    public String version() {
+        return String.join(".", fanOut(shards, shard -> base36(shard.getJdbcTemplate().queryForObject(VERSION_SQL, Long.class))));
+    }
+
+    /**
+     * 샤드별 회원 수
+     */
+    public Map<String, Long> countByShard() {
+        List<Long> counts = fanOut(shards, shard -> shard.getJdbcTemplate().queryForObject("select count(*) from member", Long.class));
+        Map<String, Long> result = new LinkedHashMap<>();
+        for (int i = 0; i < shards.size(); i++) {
+            result.put(shards.get(i).getName(), counts.get(i));
+        }
+        return result;
+    }
+
+    /**
+     * 입학년도/학번 조건이 있으면 그 샤드만, 없으면 전체
+     */
+    private List<MemberShard> targetShards(MemberSearchCondition condition) {
+        if (StringUtils.hasText(condition.getEnterYear())) {
+            return shardsContaining(condition.getEnterYear());
+        }
+        if (StringUtils.hasText(condition.getStuNo()) && condition.getStuNo().length() >= 4) {
+            return shardsContaining(condition.getStuNo().substring(0, 4));
+        }
+        return shards;
+    }
+
+    private List<MemberShard> shardsContaining(String enterYear) {
+        try {
+            int year = Integer.parseInt(enterYear);
+            return shards.stream().filter(shard -> shard.contains(year)).collect(Collectors.toList());
+        } catch (NumberFormatException e) {
+            return Collections.emptyList(); // 숫자가 아닌 입학년도는 어느 샤드에도 없음
+        }
+    }
+
+    private MemberShard shardOfId(long id) {
+        int index = (int) (id % SHARD_ID_STRIDE);
+        return id <= 0 || index >= shards.size() ? null : shards.get(index);
+    }
+
+    private Map<MemberShard, List<Long>> groupByShard(Collection<Long> ids) {
+        Map<MemberShard, List<Long>> byShard = new LinkedHashMap<>();
+        for (Long id : ids) {
+            MemberShard shard = id == null ? null : shardOfId(id);
+            if (shard != null) {
+                byShard.computeIfAbsent(shard, s -> new ArrayList<>()).add(id);
+            }
+        }
+        return byShard;
+    }
+
+    private List<Member> findAllById(MemberShard shard, List<Long> ids) {
+        String placeholders = String.join(", ", Collections.nCopies(ids.size(), "?"));
+        return shard.getJdbcTemplate().query(SELECT + " where member_id in (" + placeholders + ")", MEMBER_ROW_MAPPER, ids.toArray());
+    }
+
+    private <T> List<T> merge(List<MemberShard> targets, Function<MemberShard, List<T>> query, Comparator<T> order, long size) {
+        return fanOut(targets, query).stream()
+                .flatMap(List::stream)
+                .sorted(order)
+                .limit(size)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * 샤드마다 동시에 실행하고 모두 끝날 때까지 기다린다 (결과는 targets 순서, 하나라도 실패하면 예외)
+     */
+    private <T> List<T> fanOut(List<MemberShard> targets, Function<MemberShard, T> task) {
+        if (targets.size() == 1) {
+            return Collections.singletonList(task.apply(targets.get(0))); // 샤드 하나면 호출 스레드에서 바로 실행
+        }
+        List<CompletableFuture<T>> futures = targets.stream()
+                .map(shard -> CompletableFuture.supplyAsync(() -> task.apply(shard), executor))
+                .collect(Collectors.toList());
+        try {
+            return futures.stream().map(CompletableFuture::join).collect(Collectors.toList());
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    private Member first(MemberShard shard, String sql, Object arg) {
+        List<Member> members = shard.getJdbcTemplate().query(sql, MEMBER_ROW_MAPPER, arg);
+        return members.isEmpty() ? null : members.get(0);
+    }
+
+    /**
+     * count 개의 id 블록을 받고 첫 번호를 돌려준다 - 한 트랜잭션에서 올리고 읽으므로 다른 인스턴스와 겹치지 않는다
+     */
+    private long allocateIds(MemberShard shard, int count) {
+        Long next = shard.getTransactionTemplate().execute(status -> {
+            shard.getJdbcTemplate().update("update member_id_block set next_value = next_value + ? where id = 1", count);
+            return shard.getJdbcTemplate().queryForObject("select next_value from member_id_block where id = 1", Long.class);
+        });
+        if (next == null) {
+            throw new IllegalStateException("id 블록을 받지 못했습니다. shard=" + shard.getName());
+        }
+        return next - count;
+    }
+
+    /**
+     * 샤드 트랜잭션 안에서 샤드의 변경 버전을 올린다 - 행 잠금이 커밋까지 유지되므로 샤드 안에서는 버전 순서 = 커밋 순서
+     */
+    private long nextVersion(MemberShard shard) {
+        shard.getJdbcTemplate().update("update member_version set version = version + 1 where id = 1");
+        Long version = shard.getJdbcTemplate().queryForObject(VERSION_SQL, Long.class);
+        if (version == null) {
+            throw new IllegalStateException("변경 버전을 올리지 못했습니다. shard=" + shard.getName());
+        }
+        return version;
+    }
+
+    /**
+     * 학번 앞 4자리로 샤드를 찾으므로 입학년도와 같아야 한다 (다르면 학번으로 조회할 수 없는 샤드에 들어감)
+     */
+    private void checkStuNo(Member member) {
+        String stuNo = member.getStuNo();
+        if (stuNo == null || stuNo.length() < 4 || !stuNo.substring(0, 4).equals(member.getEnterYear())) {
+            throw new IllegalArgumentException("학번 앞 4자리가 입학년도와 같아야 합니다. stuNo=" + stuNo + ", enterYear=" + member.getEnterYear());
+        }
+    }
+
+    private void publish(MemberChangedEvent.Type type, Member member) {
+        publisher.publishEvent(new MemberChangedEvent(type, member));
+    }
+
+    private Member withId(Member member, long id, long changedAt, long changeVersion) {
+        return Member.builder()
+                .id(id)
+                .stuNo(member.getStuNo())
+                .enterYear(member.getEnterYear())
+                .name(member.getName())
+                .birthMd(member.getBirthMd())
+                .sustCd(member.getSustCd())
+                .mjrCd(member.getMjrCd())
+                .shysCd(member.getShysCd())
+                .shtmCd(member.getShtmCd())
+                .finSchregDivCd(member.getFinSchregDivCd())
+                .cptnShtmCnt(member.getCptnShtmCnt())
+                .email(member.getEmail())
+                .gender(member.getGender())
+                .address(member.getAddress())
+                .changedAt(changedAt)
+                .changeVersion(changeVersion)
+                .build();
+    }
+
+    private static void bindInsert(PreparedStatement ps, Member member) throws SQLException {
+        Address address = member.getAddress();
+        ps.setLong(1, member.getId());
+        ps.setString(2, member.getStuNo());
+        ps.setString(3, member.getEnterYear());
+        ps.setString(4, member.getName());
+        ps.setString(5, member.getBirthMd());
+        ps.setString(6, member.getSustCd());
+        ps.setString(7, member.getMjrCd());
+        ps.setString(8, member.getShysCd());
+        ps.setString(9, member.getShtmCd());
+        ps.setString(10, member.getFinSchregDivCd());
+        ps.setObject(11, member.getCptnShtmCnt());
+        ps.setString(12, member.getEmail());
+        ps.setString(13, member.getGender() == null ? null : member.getGender().name());
+        ps.setString(14, address == null ? null : address.getCity());
+        ps.setString(15, address == null ? null : address.getStreet());
+        ps.setString(16, address == null ? null : address.getZipcode());
+        ps.setLong(17, member.getChangedAt());
+        ps.setLong(18, member.getChangeVersion());
+    }
+
+    private static boolean hasColumn(JdbcTemplate jdbcTemplate, String name) {
+        Boolean found = jdbcTemplate.execute((ConnectionCallback<Boolean>) connection -> {
+            DatabaseMetaData metaData = connection.getMetaData();
+            boolean upper = metaData.storesUpperCaseIdentifiers();
+            try (ResultSet columns = metaData.getColumns(connection.getCatalog(), null, upper ? "MEMBER" : "member",
+                    upper ? name.toUpperCase() : name)) {
+                return columns.next();
+            }
+        });
+        return Boolean.TRUE.equals(found);
+    }
+
+    private static boolean hasIndex(JdbcTemplate jdbcTemplate, String name) {
+        Boolean found = jdbcTemplate.execute((ConnectionCallback<Boolean>) connection -> {
+            DatabaseMetaData metaData = connection.getMetaData();
+            String table = metaData.storesUpperCaseIdentifiers() ? "MEMBER" : "member";
+            try (ResultSet indexes = metaData.getIndexInfo(connection.getCatalog(), null, table, false, true)) {
+                while (indexes.next()) {
+                    if (name.equalsIgnoreCase(indexes.getString("INDEX_NAME"))) {
+                        return true;
+                    }
+                }
+            }
+            return false;
+        });
+        return Boolean.TRUE.equals(found);
+    }
+
+    /**
+     * MemberField 이름 -> 컬럼 (address.city -> city, stuNo -> stu_no)
+     */
+    private static String column(MemberField field) {
+        if (field == MemberField.ID) {
+            return "member_id";
+        }
+        String name = field.getName().substring(field.getName().lastIndexOf('.') + 1);
+        return name.replaceAll("([A-Z])", "_$1").toLowerCase();
+    }
+
+    private static <T extends Comparable<? super T>> void sortKey(String property, String column, Function<Member, T> getter) {
+        SORT_KEYS.put(property, new SortKey(column, Comparator.comparing(getter, Comparator.nullsFirst(Comparator.naturalOrder()))));
+    }
+
+    private static String base36(Object value) {
+        return value == null ? "0" : Long.toString(((Number) value).longValue(), 36);
+    }
+
+    private void addEqual(StringBuilder sql, List<Object> args, String column, String value) {
+        if (StringUtils.hasText(value)) {
+            sql.append(" and ").append(column).append(" = ?");
+            args.add(value);
+        }
+    }
+
+    private int parseYear(String enterYear) {
+        try {
+            return Integer.parseInt(enterYear);
+        } catch (NumberFormatException | NullPointerException e) {
+            throw new IllegalArgumentException("입학년도가 올바르지 않습니다. enterYear=" + enterYear);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+        for (MemberShard shard : shards) {
+            if (shard.getDataSource() instanceof Closeable) {
+                try {
+                    ((Closeable) shard.getDataSource()).close();
+                } catch (IOException e) {
+                    log.warn("failed to close shard datasource. shard={}", shard.getName(), e);
+                }
+            }
+        }
+    }
+
+    @AllArgsConstructor
+    private static class SortKey {
+        private final String column;
+        private final Comparator<Member> comparator;
+    }
+
+    /**
+     * MemberSummary 프로젝션과 같은 필드만 내보낸다
+     */
+    @RequiredArgsConstructor
+    private static class SummaryRow implements MemberSummary {
+
+        private final Member member;
+
+        @Override
+        public Long getId() {
+            return member.getId();
+        }
+
+        @Override
+        public String getStuNo() {
+            return member.getStuNo();
+        }
+
+        @Override
+        public String getName() {
+            return member.getName();
+        }
+
+        @Override
+        public String getSustCd() {
+            return member.getSustCd();
+        }
+
+        @Override
+        public String getShysCd() {
+            return member.getShysCd();
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package restful.demo.api.startup;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+import restful.demo.api.repository.MemberChangedAtBackfill;
+import restful.demo.api.repository.MemberSequenceAligner;
+import restful.demo.api.repository.MemberVersionCounter;
+
+import javax.persistence.EntityManagerFactory;
+
+/**
+ * migrate 프로파일 (./gradlew migrateSchema) - 배포 전에 한 번 스키마를 갱신(update)하거나 검증(validate)하고 종료한다
+ * 실제 작업은 EntityManagerFactory 를 만들 때 Hibernate 가 ddl-auto 로 끝내므로, 여기까지 왔으면 성공
+ * member_seq 맞추기(MemberSequenceAligner), changed_at/버전 채우기(MemberChangedAtBackfill), member_version 첫 행(MemberVersionCounter)도
+ * lazy 초기화라 여기서 주입받아 같이 실행한다
+ * 실패하면 기동 자체가 실패해서 0 이 아닌 종료 코드로 끝난다
+ * 서비스 기동(fast 프로파일)은 ddl-auto: none 이라 스키마를 건드리지 않는다
+ */
+@Slf4j
+@Component
+@Profile("migrate")
+public class SchemaMigrationRunner implements ApplicationRunner {
+
+    private final ConfigurableApplicationContext context;
+    private final EntityManagerFactory entityManagerFactory;
+    private final String ddlAuto;
+
+    public SchemaMigrationRunner(ConfigurableApplicationContext context,
+                                 EntityManagerFactory entityManagerFactory,
+                                 MemberSequenceAligner memberSequenceAligner,
+                                 MemberChangedAtBackfill memberChangedAtBackfill,
+                                 MemberVersionCounter memberVersionCounter,
+                                 @Value("${spring.jpa.hibernate.ddl-auto:none}") String ddlAuto) {
+        this.context = context;
+        this.entityManagerFactory = entityManagerFactory;
+        this.ddlAuto = ddlAuto;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        log.info("schema {} finished. entities={}", ddlAuto, entityManagerFactory.getMetamodel().getEntities().size());
+        System.exit(SpringApplication.exit(context));
+    }
+}
@@ -0,0 +1,26 @@
+package restful.demo.api.startup;
+
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.orm.jpa.AbstractEntityManagerFactoryBean;
+
+import javax.persistence.EntityManagerFactory;
+import javax.sql.DataSource;
+
+/**
+ * spring.main.lazy-initialization=true (fast, migrate 프로파일) 에서도 기동 시 만들어 둘 빈
+ *  - DataSource, EntityManagerFactory: 매핑/설정 오류가 첫 요청이 아니라 기동에서 드러나야 하고, 어느 요청이든 결국 필요하다
+ * 컨트롤러/서비스 등 나머지는 처음 쓰는 요청에서 만든다 (컨트롤러 하나를 미리 만들면 그 의존 빈 대부분이 같이 만들어진다)
+ * ApplicationReadyEvent preload 빈(통계 스냅샷, 자동완성 색인, 공통코드 사전)은 그 이벤트에서 만들어진다
+ * (fast 프로파일은 통계 스냅샷/자동완성 색인 전체 적재를 preload-async 로 준비 완료 뒤로 미룬다)
+ */
+@Configuration
+public class StartupConfig {
+
+    @Bean
+    public static LazyInitializationExcludeFilter criticalBeansExcludeFilter() {
+        return LazyInitializationExcludeFilter.forBeanTypes(
+                DataSource.class, EntityManagerFactory.class, AbstractEntityManagerFactoryBean.class);
+    }
+}
@@ -0,0 +1,103 @@
+package restful.demo.api.startup;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.metrics.buffering.StartupTimeline;
+import org.springframework.boot.context.metrics.buffering.StartupTimeline.TimelineEvent;
+import org.springframework.core.metrics.StartupStep;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+/**
+ * BufferingApplicationStartup 이 남긴 기동 단계를 구간별 시간으로 묶은 리포트
+ *  - jvm: JVM 시작 ~ SpringApplication 시작 (클래스 로딩, AppCDS 효과가 여기서 보인다)
+ *  - environment: ~ context refresh 시작 (설정 파일, 컨텍스트 생성)
+ *  - context-refresh: 빈 정의 처리부터 웹 서버 기동까지. 아래 두 구간을 포함한다
+ *    - bean-definitions: 설정 클래스 파싱, 컴포넌트 스캔
+ *    - jpa: entityManagerFactory 생성 (Hibernate 부트스트랩, ddl-auto)
+ *  - ready: refresh 이후 ~ ACCEPTING_TRAFFIC (ApplicationRunner, ApplicationReadyEvent 의 preload)
+ * 빈 생성 시간은 그 빈이 끌고 온 의존 빈 생성 시간까지 포함한다
+ */
+@Getter
+public class StartupTimelineReport {
+
+    static final String CONTEXT_REFRESH = "spring.context.refresh";
+    static final String BEAN_POST_PROCESS = "spring.context.beans.post-process";
+    static final String BEAN_INSTANTIATE = "spring.beans.instantiate";
+    static final String ENTITY_MANAGER_FACTORY = "entityManagerFactory";
+    private static final int SLOWEST_BEANS = 10;
+
+    private final long totalMillis;
+    private final Map<String, Object> settings;
+    private final Map<String, Long> phases = new LinkedHashMap<>();
+    private final int beansInstantiated;
+    private final List<BeanTiming> slowestBeans;
+
+    private StartupTimelineReport(long totalMillis, Map<String, Object> settings, int beansInstantiated, List<BeanTiming> slowestBeans) {
+        this.totalMillis = totalMillis;
+        this.settings = settings;
+        this.beansInstantiated = beansInstantiated;
+        this.slowestBeans = slowestBeans;
+    }
+
+    public static StartupTimelineReport of(StartupTimeline timeline, Instant jvmStart, Instant readyAt, Map<String, Object> settings) {
+        List<TimelineEvent> events = timeline.getEvents();
+        List<BeanTiming> beans = events.stream()
+                .filter(event -> BEAN_INSTANTIATE.equals(event.getStartupStep().getName()))
+                .map(event -> new BeanTiming(tag(event.getStartupStep(), "beanName"), event.getDuration().toMillis()))
+                .collect(Collectors.toList());
+        List<BeanTiming> slowest = beans.stream()
+                .sorted(Comparator.comparingLong(BeanTiming::getMillis).reversed())
+                .limit(SLOWEST_BEANS)
+                .collect(Collectors.toList());
+
+        StartupTimelineReport report = new StartupTimelineReport(
+                millis(jvmStart, readyAt), settings, beans.size(), slowest);
+        report.phases.put("jvm", millis(jvmStart, timeline.getStartTime()));
+
+        Optional<TimelineEvent> refresh = events.stream()
+                .filter(event -> CONTEXT_REFRESH.equals(event.getStartupStep().getName()))
+                .findFirst();
+        refresh.ifPresent(event -> {
+            report.phases.put("environment", millis(timeline.getStartTime(), event.getStartTime()));
+            report.phases.put("context-refresh", event.getDuration().toMillis());
+            report.phases.put("bean-definitions", events.stream()
+                    .filter(e -> BEAN_POST_PROCESS.equals(e.getStartupStep().getName()))
+                    .mapToLong(e -> e.getDuration().toMillis())
+                    .sum());
+            beans.stream()
+                    .filter(bean -> ENTITY_MANAGER_FACTORY.equals(bean.getName()))
+                    .findFirst()
+                    .ifPresent(bean -> report.phases.put("jpa", bean.getMillis()));
+            report.phases.put("ready", millis(event.getEndTime(), readyAt));
+        });
+        return report;
+    }
+
+    private static long millis(Instant from, Instant to) {
+        return Math.max(0, Duration.between(from, to).toMillis());
+    }
+
+    private static String tag(StartupStep step, String key) {
+        for (StartupStep.Tag tag : step.getTags()) {
+            if (key.equals(tag.getKey())) {
+                return tag.getValue();
+            }
+        }
+        return step.getName();
+    }
+
+    @Getter
+    @RequiredArgsConstructor
+    public static class BeanTiming {
+        private final String name;
+        private final long millis;
+    }
+}
@@ -0,0 +1,110 @@
+package restful.demo.api.startup;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.availability.AvailabilityChangeEvent;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.RuntimeMXBean;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 기동이 끝나면(ACCEPTING_TRAFFIC) 구간별 기동 시간을 로그로 남기고, member.startup.report-file 이 있으면 JSON 으로도 쓴다
+ *  - ApplicationReadyEvent 가 아니라 그 다음에 오는 readiness 이벤트를 받으므로 preload 시간까지 ready 구간에 들어간다
+ *  - member.startup.budget 을 넘기면 경고, exit-after-ready 면 종료 코드 1 (./gradlew startupCheck)
+ *  - exit-after-ready 는 AppCDS 학습 실행(./gradlew cdsArchive)에서도 기동만 하고 끝내는 데 쓴다
+ */
+@Slf4j
+@Component
+public class StartupTimelineReporter {
+
+    private final ConfigurableApplicationContext context;
+    private final ObjectMapper objectMapper;
+    private final String reportFile;
+    private final Duration budget;
+    private final boolean exitAfterReady;
+    private volatile StartupTimelineReport report;
+
+    public StartupTimelineReporter(ConfigurableApplicationContext context,
+                                   ObjectMapper objectMapper,
+                                   @Value("${member.startup.report-file:}") String reportFile,
+                                   @Value("${member.startup.budget:0}") Duration budget,
+                                   @Value("${member.startup.exit-after-ready:false}") boolean exitAfterReady) {
+        this.context = context;
+        this.objectMapper = objectMapper;
+        this.reportFile = reportFile;
+        this.budget = budget;
+        this.exitAfterReady = exitAfterReady;
+    }
+
+    @EventListener
+    public void onReadiness(AvailabilityChangeEvent<ReadinessState> event) {
+        if (event.getState() != ReadinessState.ACCEPTING_TRAFFIC || report != null
+                || !(context.getApplicationStartup() instanceof BufferingApplicationStartup)) {
+            return;
+        }
+        RuntimeMXBean runtime = ManagementFactory.getRuntimeMXBean();
+        BufferingApplicationStartup startup = (BufferingApplicationStartup) context.getApplicationStartup();
+        report = StartupTimelineReport.of(startup.getBufferedTimeline(),
+                Instant.ofEpochMilli(runtime.getStartTime()), Instant.now(), settings(runtime));
+
+        log.info("startup timeline: total={}ms phases={} beans={} settings={}",
+                report.getTotalMillis(), report.getPhases(), report.getBeansInstantiated(), report.getSettings());
+        report.getSlowestBeans().forEach(bean -> log.info("  slow bean {} {}ms", bean.getName(), bean.getMillis()));
+        if (StringUtils.hasText(reportFile)) {
+            write(Paths.get(reportFile));
+        }
+
+        boolean overBudget = !budget.isZero() && report.getTotalMillis() > budget.toMillis();
+        if (overBudget) {
+            log.warn("startup took {}ms, over budget {}ms", report.getTotalMillis(), budget.toMillis());
+        }
+        if (exitAfterReady) {
+            int exitCode = overBudget ? 1 : 0;
+            System.exit(SpringApplication.exit(context, () -> exitCode));
+        }
+    }
+
+    private Map<String, Object> settings(RuntimeMXBean runtime) {
+        Environment environment = context.getEnvironment();
+        Map<String, Object> settings = new LinkedHashMap<>();
+        settings.put("profiles", Arrays.asList(environment.getActiveProfiles()));
+        settings.put("lazyInitialization", environment.getProperty("spring.main.lazy-initialization", Boolean.class, false));
+        settings.put("ddlAuto", environment.getProperty("spring.jpa.hibernate.ddl-auto", "none"));
+        settings.put("sharedArchive", runtime.getInputArguments().stream()
+                .filter(arg -> arg.startsWith("-XX:SharedArchiveFile="))
+                .map(arg -> arg.substring(arg.indexOf('=') + 1))
+                .findFirst()
+                .orElse(null));
+        return settings;
+    }
+
+    private void write(Path path) {
+        try {
+            if (path.getParent() != null) {
+                Files.createDirectories(path.getParent());
+            }
+            objectMapper.writerWithDefaultPrettyPrinter().writeValue(path.toFile(), report);
+            log.info("startup timeline written to {}", path.toAbsolutePath());
+        } catch (IOException e) {
+            log.warn("failed to write startup timeline to {}", path, e);
+        }
+    }
+}
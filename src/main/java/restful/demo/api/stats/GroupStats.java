@@ -0,0 +1,16 @@
+package restful.demo.api.stats;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * group by 결과 한 행 - 코드값, 학생 수, 평균 학기수(학기수가 없는 학생은 평균에서 제외)
+ */
+@Getter
+@AllArgsConstructor
+public class GroupStats {
+
+    private final String key;
+    private final long count;
+    private final Double avgCptnShtmCnt;
+}
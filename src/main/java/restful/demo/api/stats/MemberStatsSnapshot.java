@@ -0,0 +1,351 @@
+package restful.demo.api.stats;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import restful.demo.api.concurrency.OverloadedException;
+import restful.demo.api.entity.Gender;
+import restful.demo.api.entity.Member;
+import restful.demo.api.event.MemberChangedEvent;
+import restful.demo.api.service.MemberService;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+
+/**
+ * 통계용 member 테이블 컬럼형 스냅샷
+ *  - 코드 컬럼(sustCd, mjrCd, shysCd, finSchregDivCd)은 사전(dictionary) 인코딩해서 int 배열로 저장
+ *  - 학기수는 int 배열(없으면 -1), 성별은 Gender 별 BitSet
+ *  - 기동 시 한 번 전체를 읽고(preload-async 면 준비 완료 후 별도 스레드에서), 이후에는 MemberChangedEvent 로 한 행씩 갱신
+ *    전체를 읽는 동안 온 변경은 모아 뒀다가 다 읽은 뒤에 순서대로 적용한다
+ *    (읽기 전에 온 삭제가 나중에 읽은 행에 묻히거나, 읽은 이전 값이 새 값을 덮지 않게)
+ *  - 삭제된 행은 live 에서만 빠지고 자리는 남으므로, 죽은 행이 살아있는 행보다 많아지면 배열을 새로 만들어 압축한다
+ * group by 는 DB 없이 배열만 훑으므로 10만 건 이상도 수 ms 안에 끝난다
+ */
+@Slf4j
+@Component
+public class MemberStatsSnapshot {
+
+    private static final int NULL_CODE = -1;
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final int COMPACT_MIN_DEAD = 1024;
+
+    private final MemberService memberService;
+    private final boolean preload;
+    private final boolean preloadAsync;
+    private volatile boolean loading;
+    private final Object loadLock = new Object();
+    private List<MemberChangedEvent> deferred; // 전체 적재 중일 때만 있음
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, Integer> rowById = new HashMap<>();
+    private final Map<String, CodeColumn> codeColumns = new HashMap<>();
+    private final EnumMap<Gender, BitSet> genders = new EnumMap<>(Gender.class);
+    private final BitSet live = new BitSet();
+    private int[] cptnShtmCnt = new int[INITIAL_CAPACITY];
+    private int rows;
+    private int dead;
+
+    public MemberStatsSnapshot(MemberService memberService,
+                               @Value("${member.stats.preload:true}") boolean preload,
+                               @Value("${member.stats.preload-async:false}") boolean preloadAsync) {
+        this.memberService = memberService;
+        this.preload = preload;
+        this.preloadAsync = preloadAsync;
+        codeColumns.put("sustCd", new CodeColumn(Member::getSustCd));
+        codeColumns.put("mjrCd", new CodeColumn(Member::getMjrCd));
+        codeColumns.put("shysCd", new CodeColumn(Member::getShysCd));
+        codeColumns.put("finSchregDivCd", new CodeColumn(Member::getFinSchregDivCd));
+        for (Gender gender : Gender.values()) {
+            genders.put(gender, new BitSet());
+        }
+    }
+
+    /**
+     * preload-async 면 별도 스레드에서 적재하므로 준비 완료가 테이블 크기만큼 늦어지지 않는다 (적재 중 groupBy 는 503)
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        if (!preload) {
+            return;
+        }
+        if (!preloadAsync) {
+            loadAll();
+            return;
+        }
+        loading = true;
+        Thread thread = new Thread(this::loadAll, "member-stats-preload");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private void loadAll() {
+        synchronized (loadLock) {
+            deferred = new ArrayList<>();
+        }
+        try {
+            long start = System.currentTimeMillis();
+            memberService.streamAll(this::upsert);
+            log.info("member stats snapshot loaded. rows={}, elapsed={}ms", size(), System.currentTimeMillis() - start);
+        } finally {
+            synchronized (loadLock) {
+                deferred.forEach(this::apply);
+                deferred = null;
+            }
+            loading = false;
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMemberChanged(MemberChangedEvent event) {
+        synchronized (loadLock) {
+            if (deferred != null) {
+                deferred.add(event);
+                return;
+            }
+            apply(event);
+        }
+    }
+
+    private void apply(MemberChangedEvent event) {
+        if (event.getType() == MemberChangedEvent.Type.DELETED) {
+            remove(event.getMemberId());
+        } else {
+            upsert(event.getMember());
+        }
+    }
+
+    public void upsert(Member member) {
+        lock.writeLock().lock();
+        try {
+            Integer row = rowById.get(member.getId());
+            if (row == null) {
+                row = rows++;
+                rowById.put(member.getId(), row);
+                ensureCapacity(rows);
+            }
+            for (CodeColumn column : codeColumns.values()) {
+                column.set(row, member);
+            }
+            cptnShtmCnt[row] = member.getCptnShtmCnt() == null ? NULL_CODE : member.getCptnShtmCnt();
+            for (Map.Entry<Gender, BitSet> entry : genders.entrySet()) {
+                entry.getValue().set(row, entry.getKey() == member.getGender());
+            }
+            live.set(row);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long id) {
+        lock.writeLock().lock();
+        try {
+            Integer row = rowById.remove(id);
+            if (row != null) {
+                live.clear(row);
+                genders.values().forEach(bits -> bits.clear(row));
+                dead++;
+                compactIfNeeded();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return live.cardinality();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * column 별 학생 수와 평균 학기수 (sustCd, mjrCd, shysCd, finSchregDivCd, gender)
+     */
+    public List<GroupStats> groupBy(String column) {
+        if (loading) {
+            throw new OverloadedException("통계 스냅샷을 적재하는 중입니다. 잠시 후 다시 시도해 주세요.");
+        }
+        lock.readLock().lock();
+        try {
+            if ("gender".equals(column)) {
+                return groupByGender();
+            }
+            CodeColumn codeColumn = codeColumns.get(column);
+            if (codeColumn == null) {
+                throw new IllegalArgumentException("group by 할 수 없는 컬럼입니다. column=" + column);
+            }
+            return groupByCode(codeColumn);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private List<GroupStats> groupByCode(CodeColumn column) {
+        int groups = column.dictionary.size() + 1; // 0 번은 null 코드
+        long[] counts = new long[groups];
+        long[] sums = new long[groups];
+        long[] sumCounts = new long[groups];
+        for (int row = live.nextSetBit(0); row >= 0; row = live.nextSetBit(row + 1)) {
+            int group = column.codes[row] + 1;
+            counts[group]++;
+            if (cptnShtmCnt[row] != NULL_CODE) {
+                sums[group] += cptnShtmCnt[row];
+                sumCounts[group]++;
+            }
+        }
+        List<GroupStats> result = new ArrayList<>();
+        for (int group = 0; group < groups; group++) {
+            if (counts[group] > 0) {
+                String key = group == 0 ? null : column.dictionary.get(group - 1);
+                result.add(new GroupStats(key, counts[group], average(sums[group], sumCounts[group])));
+            }
+        }
+        return result;
+    }
+
+    private List<GroupStats> groupByGender() {
+        List<GroupStats> result = new ArrayList<>();
+        for (Map.Entry<Gender, BitSet> entry : genders.entrySet()) {
+            BitSet rowsOfGender = (BitSet) entry.getValue().clone();
+            rowsOfGender.and(live);
+            long sum = 0;
+            long sumCount = 0;
+            for (int row = rowsOfGender.nextSetBit(0); row >= 0; row = rowsOfGender.nextSetBit(row + 1)) {
+                if (cptnShtmCnt[row] != NULL_CODE) {
+                    sum += cptnShtmCnt[row];
+                    sumCount++;
+                }
+            }
+            if (!rowsOfGender.isEmpty()) {
+                result.add(new GroupStats(entry.getKey().getCode(), rowsOfGender.cardinality(), average(sum, sumCount)));
+            }
+        }
+        return result;
+    }
+
+    private Double average(long sum, long count) {
+        return count == 0 ? null : (double) sum / count;
+    }
+
+    /**
+     * 살아있는 행만 앞에서부터 다시 채운다 (코드 사전도 쓰이는 코드만 기존 순서대로 남김)
+     */
+    private void compactIfNeeded() {
+        if (dead < COMPACT_MIN_DEAD || dead * 2 < rows) {
+            return;
+        }
+        int capacity = Math.max(INITIAL_CAPACITY, rowById.size() * 2);
+        int[] oldRows = new int[rowById.size()];
+        int next = 0;
+        for (Map.Entry<Long, Integer> entry : rowById.entrySet()) {
+            oldRows[next] = entry.getValue();
+            entry.setValue(next++);
+        }
+        for (CodeColumn column : codeColumns.values()) {
+            column.compact(oldRows, capacity);
+        }
+        int[] oldCptnShtmCnt = cptnShtmCnt;
+        cptnShtmCnt = new int[capacity];
+        for (Map.Entry<Gender, BitSet> entry : genders.entrySet()) {
+            BitSet oldBits = entry.getValue();
+            BitSet bits = new BitSet();
+            for (int row = 0; row < oldRows.length; row++) {
+                bits.set(row, oldBits.get(oldRows[row]));
+            }
+            entry.setValue(bits);
+        }
+        for (int row = 0; row < oldRows.length; row++) {
+            cptnShtmCnt[row] = oldCptnShtmCnt[oldRows[row]];
+        }
+        live.clear();
+        live.set(0, oldRows.length);
+        log.debug("member stats snapshot compacted. rows={} -> {}", rows, oldRows.length);
+        rows = oldRows.length;
+        dead = 0;
+    }
+
+    int capacity() {
+        lock.readLock().lock();
+        try {
+            return cptnShtmCnt.length;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void ensureCapacity(int required) {
+        if (required <= cptnShtmCnt.length) {
+            return;
+        }
+        int capacity = Math.max(required, cptnShtmCnt.length * 2);
+        cptnShtmCnt = Arrays.copyOf(cptnShtmCnt, capacity);
+        codeColumns.values().forEach(column -> column.grow(capacity));
+    }
+
+    /**
+     * 사전 인코딩 코드 컬럼 - 코드 문자열은 dictionary 에 한 번만 저장하고 행에는 int 번호만 둔다
+     */
+    private static class CodeColumn {
+
+        private final Function<Member, String> getter;
+        private final Map<String, Integer> index = new HashMap<>();
+        private final List<String> dictionary = new ArrayList<>();
+        private int[] codes = new int[INITIAL_CAPACITY];
+
+        CodeColumn(Function<Member, String> getter) {
+            this.getter = getter;
+        }
+
+        void set(int row, Member member) {
+            String value = getter.apply(member);
+            codes[row] = value == null ? NULL_CODE : index.computeIfAbsent(value, v -> {
+                dictionary.add(v);
+                return dictionary.size() - 1;
+            });
+        }
+
+        void grow(int capacity) {
+            codes = Arrays.copyOf(codes, capacity);
+        }
+
+        void compact(int[] oldRows, int capacity) {
+            boolean[] used = new boolean[dictionary.size()];
+            for (int oldRow : oldRows) {
+                if (codes[oldRow] != NULL_CODE) {
+                    used[codes[oldRow]] = true;
+                }
+            }
+            int[] remap = new int[dictionary.size()];
+            List<String> oldDictionary = new ArrayList<>(dictionary);
+            dictionary.clear();
+            index.clear();
+            for (int code = 0; code < oldDictionary.size(); code++) {
+                if (used[code]) {
+                    remap[code] = dictionary.size();
+                    index.put(oldDictionary.get(code), dictionary.size());
+                    dictionary.add(oldDictionary.get(code));
+                }
+            }
+            int[] compacted = new int[capacity];
+            for (int row = 0; row < oldRows.length; row++) {
+                int code = codes[oldRows[row]];
+                compacted[row] = code == NULL_CODE ? NULL_CODE : remap[code];
+            }
+            codes = compacted;
+        }
+    }
+}
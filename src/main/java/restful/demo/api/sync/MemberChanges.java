@@ -0,0 +1,24 @@
+package restful.demo.api.sync;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import restful.demo.api.entity.Member;
+
+import java.util.List;
+
+/**
+ * /members/changes 응답
+ *  - upserts : 토큰 이후 등록/수정된 회원
+ *  - deleted : 토큰 이후 삭제된 회원 id
+ *  - next    : 다음 요청의 since 로 넘길 토큰
+ *  - hasMore : true 면 next 로 바로 한 번 더 요청
+ */
+@Getter
+@AllArgsConstructor
+public class MemberChanges {
+
+    private final List<Member> upserts;
+    private final List<Long> deleted;
+    private final String next;
+    private final boolean hasMore;
+}
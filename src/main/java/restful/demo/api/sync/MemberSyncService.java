@@ -0,0 +1,81 @@
+package restful.demo.api.sync;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import restful.demo.api.entity.Member;
+import restful.demo.api.entity.MemberTombstone;
+import restful.demo.api.repository.MemberRepository;
+import restful.demo.api.repository.MemberTombstoneRepository;
+import restful.demo.api.service.MemberService;
+import restful.demo.api.shard.ShardedMemberRepository;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * 변경분 동기화 - 토큰 이후 바뀐 회원과 삭제된 회원 id 만 내려준다
+ *
+ * 기준은 시각이 아니라 쓰기 트랜잭션 안에서 받는 회원 변경 버전(change_version, MemberVersionCounter)이다
+ * 버전은 커밋 순서대로 커지므로, 조회 시점에 아직 커밋되지 않은 트랜잭션은 이미 보인 어떤 버전보다도 큰 버전을 갖는다
+ * -> 내려준 위치보다 앞에 늦게 끼어드는 행이 없어서 트랜잭션이 아무리 길어도 빠지는 변경이 없다 (예전의 settle 대기도 필요 없음)
+ * member.shard.enabled=true 면 변경된 회원은 샤드마다 그 샤드의 버전으로 따로 따라간다 (삭제 tombstone 은 기본 DB)
+ */
+@Service
+@Transactional(readOnly = true)
+public class MemberSyncService {
+
+    private final MemberRepository memberRepository;
+    private final MemberTombstoneRepository memberTombstoneRepository;
+    private final ShardedMemberRepository shardedMemberRepository; // 샤딩을 켜지 않으면 null
+
+    public MemberSyncService(MemberRepository memberRepository,
+                             MemberTombstoneRepository memberTombstoneRepository,
+                             ObjectProvider<ShardedMemberRepository> shardedMemberRepository) {
+        this.memberRepository = memberRepository;
+        this.memberTombstoneRepository = memberTombstoneRepository;
+        this.shardedMemberRepository = shardedMemberRepository.getIfAvailable();
+    }
+
+    public MemberChanges findChanges(String since, int size) {
+        int cursorCount = shardedMemberRepository != null ? shardedMemberRepository.getShards().size() : 1;
+        SyncToken token = SyncToken.parse(since, cursorCount);
+        int pageSize = Math.max(1, Math.min(size, MemberService.MAX_PAGE_SIZE));
+
+        List<List<Member>> changed;
+        if (shardedMemberRepository != null) {
+            changed = shardedMemberRepository.findChangedAfter(token.getCursors(), pageSize + 1);
+        } else {
+            SyncToken.Cursor cursor = token.getCursors().get(0);
+            changed = Collections.singletonList(
+                    memberRepository.findChangedAfter(cursor.getVersion(), cursor.getLastId(), PageRequest.of(0, pageSize + 1)));
+        }
+
+        // 앞 샤드부터 pageSize 건까지 채운다 - 다 못 내려준 샤드가 있으면 hasMore
+        List<Member> upserts = new ArrayList<>();
+        List<SyncToken.Cursor> cursors = new ArrayList<>(cursorCount);
+        boolean hasMore = false;
+        for (int i = 0; i < cursorCount; i++) {
+            List<Member> rows = changed.get(i);
+            List<Member> taken = rows.subList(0, Math.min(rows.size(), pageSize - upserts.size()));
+            hasMore |= taken.size() < rows.size();
+            upserts.addAll(taken);
+            if (taken.isEmpty()) {
+                cursors.add(token.getCursors().get(i));
+            } else {
+                Member last = taken.get(taken.size() - 1);
+                cursors.add(new SyncToken.Cursor(last.getChangeVersion(), last.getId()));
+            }
+        }
+
+        List<MemberTombstone> tombstones = memberTombstoneRepository.findDeletedAfter(token.getDeletedVersion());
+        long deletedVersion = tombstones.isEmpty() ? token.getDeletedVersion() : tombstones.get(tombstones.size() - 1).getVersion();
+        List<Long> deleted = tombstones.stream()
+                .map(MemberTombstone::getMemberId)
+                .collect(Collectors.toList());
+        return new MemberChanges(upserts, deleted, new SyncToken(deletedVersion, cursors).encode(), hasMore);
+    }
+}
@@ -0,0 +1,68 @@
+package restful.demo.api.sync;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 변경분 동기화 토큰 - 마지막으로 받은 삭제(tombstone)의 버전과, 회원 쪽 위치(마지막으로 받은 행의 (changeVersion, id))
+ * 회원 쪽 위치는 member 테이블이면 하나, 샤딩이면 샤드마다 하나 (샤드 버전끼리는 비교할 수 없으므로)
+ * 클라이언트에게는 base64 문자열로만 보이도록 한다
+ */
+@Getter
+@AllArgsConstructor
+public class SyncToken {
+
+    private final long deletedVersion;
+    private final List<Cursor> cursors;
+
+    /**
+     * 처음 동기화 - 버전 0(채워 넣은 기존 행)부터 모두
+     */
+    public static SyncToken initial(int cursorCount) {
+        return new SyncToken(-1L, Collections.nCopies(cursorCount, new Cursor(-1L, 0L)));
+    }
+
+    public static SyncToken parse(String token, int cursorCount) {
+        if (token == null || token.isEmpty()) {
+            return initial(cursorCount);
+        }
+        SyncToken parsed;
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = decoded.split("~");
+            List<Cursor> cursors = new ArrayList<>(parts.length - 1);
+            for (int i = 1; i < parts.length; i++) {
+                String[] cursor = parts[i].split(":");
+                cursors.add(new Cursor(Long.parseLong(cursor[0]), Long.parseLong(cursor[1])));
+            }
+            parsed = new SyncToken(Long.parseLong(parts[0]), cursors);
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("잘못된 동기화 토큰입니다. since=" + token);
+        }
+        if (parsed.cursors.size() != cursorCount) {
+            throw new IllegalArgumentException("저장소 구성이 바뀌어 쓸 수 없는 동기화 토큰입니다. since 없이 처음부터 다시 동기화하세요.");
+        }
+        return parsed;
+    }
+
+    public String encode() {
+        StringBuilder raw = new StringBuilder().append(deletedVersion);
+        for (Cursor cursor : cursors) {
+            raw.append('~').append(cursor.version).append(':').append(cursor.lastId);
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class Cursor {
+        private final long version;
+        private final long lastId;
+    }
+}
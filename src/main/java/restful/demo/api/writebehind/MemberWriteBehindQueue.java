@@ -0,0 +1,267 @@
+package restful.demo.api.writebehind;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import restful.demo.api.concurrency.OverloadedException;
+import restful.demo.api.dto.MemberProfileChange;
+import restful.demo.api.entity.Member;
+import restful.demo.api.event.MemberChangedEvent;
+import restful.demo.api.repository.MemberRepository;
+import restful.demo.api.repository.MemberVersionCounter;
+import restful.demo.api.shard.ShardedMemberRepository;
+
+import javax.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 주소/이메일 변경 write-behind 큐
+ *  - 변경 요청은 메모리에만 쌓고 바로 돌아간다 (같은 회원의 변경은 하나로 합침 - 나중 값이 이김)
+ *  - max-batch 건이 차거나 flush-interval 마다 한 트랜잭션 안에서 JDBC batch update 로 반영한다 (회원 변경 버전도 같이 올림)
+ *  - 반영된 회원은 다시 읽어서 MemberChangedEvent 를 발행한다 (캐시, ETag, 통계, 자동완성, 변경분 동기화가 JPA 변경과 똑같이 갱신됨)
+ *  - enqueue 가 돌려주는 future 는 그 변경이 커밋되면 완료된다 (반영을 확인해야 하는 호출자는 기다리면 된다)
+ * flush 는 한 번에 하나만 실행해서 같은 회원의 이전 변경이 나중에 커밋되는 일이 없게 한다
+ * 커밋 전에 프로세스가 죽으면 큐에 있던 변경은 사라진다 (ack 를 기다리지 않은 호출자는 이를 감수하는 것)
+ * member.shard.enabled=true 면 ShardedMemberRepository.changeProfiles 로 샤드마다 한 트랜잭션씩 반영한다 (이벤트도 거기서 발행)
+ */
+@Slf4j
+@Component
+public class MemberWriteBehindQueue {
+
+    private static final String UPDATE = "update member set city = coalesce(?, city), street = coalesce(?, street), "
+            + "zipcode = coalesce(?, zipcode), email = coalesce(?, email), changed_at = ?, change_version = ? where member_id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final MemberRepository memberRepository;
+    private final MemberVersionCounter memberVersionCounter;
+    private final ShardedMemberRepository shardedMemberRepository; // 샤딩을 켜지 않으면 null
+    private final ApplicationEventPublisher publisher;
+    private final int maxBatch;
+    private final int capacity;
+
+    private final Object pendingLock = new Object();
+    private final Object flushLock = new Object();
+    private Map<Long, Pending> pending = new LinkedHashMap<>();
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "member-write-behind");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final Counter updates;
+    private final Counter coalesced;
+    private final Timer flushTimer;
+    private final DistributionSummary batchSize;
+
+    @Autowired
+    public MemberWriteBehindQueue(JdbcTemplate jdbcTemplate,
+                                  PlatformTransactionManager transactionManager,
+                                  MemberRepository memberRepository,
+                                  MemberVersionCounter memberVersionCounter,
+                                  ObjectProvider<ShardedMemberRepository> shardedMemberRepository,
+                                  ApplicationEventPublisher publisher,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${member.write-behind.max-batch:500}") int maxBatch,
+                                  @Value("${member.write-behind.capacity:10000}") int capacity,
+                                  @Value("${member.write-behind.flush-interval:200ms}") Duration flushInterval) {
+        this(jdbcTemplate, transactionManager, memberRepository, memberVersionCounter, shardedMemberRepository.getIfAvailable(), publisher,
+                meterRegistry, maxBatch, capacity, flushInterval);
+    }
+
+    MemberWriteBehindQueue(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager, MemberRepository memberRepository,
+                           MemberVersionCounter memberVersionCounter, ApplicationEventPublisher publisher, MeterRegistry meterRegistry,
+                           int maxBatch, int capacity, Duration flushInterval) {
+        this(jdbcTemplate, transactionManager, memberRepository, memberVersionCounter, (ShardedMemberRepository) null, publisher,
+                meterRegistry, maxBatch, capacity, flushInterval);
+    }
+
+    private MemberWriteBehindQueue(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager, MemberRepository memberRepository,
+                                   MemberVersionCounter memberVersionCounter, ShardedMemberRepository shardedMemberRepository,
+                                   ApplicationEventPublisher publisher, MeterRegistry meterRegistry, int maxBatch, int capacity,
+                                   Duration flushInterval) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.memberRepository = memberRepository;
+        this.memberVersionCounter = memberVersionCounter;
+        this.shardedMemberRepository = shardedMemberRepository;
+        this.publisher = publisher;
+        this.maxBatch = maxBatch;
+        this.capacity = capacity;
+        this.updates = meterRegistry.counter("member.write-behind.updates");
+        this.coalesced = meterRegistry.counter("member.write-behind.coalesced");
+        this.flushTimer = Timer.builder("member.write-behind.flush").publishPercentiles(0.5, 0.99).register(meterRegistry);
+        this.batchSize = DistributionSummary.builder("member.write-behind.batch-size").register(meterRegistry);
+        Gauge.builder("member.write-behind.queue", this, MemberWriteBehindQueue::depth).register(meterRegistry);
+        Gauge.builder("member.write-behind.coalescing-ratio", this, MemberWriteBehindQueue::coalescingRatio).register(meterRegistry);
+        long millis = flushInterval.toMillis();
+        scheduler.scheduleWithFixedDelay(this::flushQuietly, millis, millis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 변경을 큐에 넣고 커밋되면 완료되는 future 를 돌려준다 (같은 회원의 아직 반영 안 된 변경과 합쳐지면 같은 future)
+     * 큐가 가득 차면 OverloadedException (503)
+     */
+    public CompletableFuture<Void> enqueue(long id, MemberProfileChange change) {
+        if (change.isEmpty()) {
+            throw new IllegalArgumentException("변경할 값이 없습니다. id=" + id);
+        }
+        updates.increment();
+        boolean full;
+        CompletableFuture<Void> ack;
+        synchronized (pendingLock) {
+            Pending existing = pending.get(id);
+            if (existing != null) {
+                existing.change = change.mergeInto(existing.change);
+                coalesced.increment();
+                return existing.ack;
+            }
+            if (pending.size() >= capacity) {
+                throw new OverloadedException("write-behind 큐가 가득 찼습니다. capacity=" + capacity);
+            }
+            Pending created = new Pending(change);
+            pending.put(id, created);
+            ack = created.ack;
+            full = pending.size() >= maxBatch;
+        }
+        if (full) {
+            scheduler.execute(this::flushQuietly);
+        }
+        return ack;
+    }
+
+    /**
+     * 쌓인 변경을 지금 반영하고 반영한 회원 수를 돌려준다
+     */
+    public int flush() {
+        synchronized (flushLock) {
+            Map<Long, Pending> batch;
+            synchronized (pendingLock) {
+                batch = pending;
+                pending = new LinkedHashMap<>();
+            }
+            if (batch.isEmpty()) {
+                return 0;
+            }
+            return write(batch);
+        }
+    }
+
+    public int depth() {
+        synchronized (pendingLock) {
+            return pending.size();
+        }
+    }
+
+    /**
+     * 들어온 변경 중 다른 변경에 합쳐진 비율
+     */
+    public double coalescingRatio() {
+        double total = updates.count();
+        return total == 0 ? 0 : coalesced.count() / total;
+    }
+
+    private int write(Map<Long, Pending> batch) {
+        long start = System.nanoTime();
+        List<Long> ids = new ArrayList<>(batch.keySet());
+        long changedAt = System.currentTimeMillis();
+        List<Member> changed;
+        try {
+            changed = shardedMemberRepository != null ? changeShards(batch, changedAt) : transactionTemplate.execute(status -> {
+                long version = memberVersionCounter.next();
+                jdbcTemplate.batchUpdate(UPDATE, ids, ids.size(), (ps, id) -> {
+                    MemberProfileChange change = batch.get(id).change;
+                    ps.setString(1, change.getCity());
+                    ps.setString(2, change.getStreet());
+                    ps.setString(3, change.getZipcode());
+                    ps.setString(4, change.getEmail());
+                    ps.setLong(5, changedAt);
+                    ps.setLong(6, version);
+                    ps.setLong(7, id);
+                });
+                return memberRepository.findAllById(ids); // 같은 쓰기 트랜잭션에서 읽어야 replica 지연 없이 반영된 값을 본다
+            });
+        } catch (RuntimeException e) {
+            log.warn("write-behind flush failed. members={}", ids.size(), e);
+            batch.values().forEach(p -> p.ack.completeExceptionally(e));
+            return 0;
+        }
+        flushTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        batchSize.record(ids.size());
+
+        // rewriteBatchedStatements 면 행별 갱신 건수가 SUCCESS_NO_INFO(-2) 로 와서 알 수 없으므로,
+        // 같은 트랜잭션에서 다시 읽은 결과에 없는 id 를 없는 회원으로 본다
+        Set<Long> missing = new HashSet<>(ids);
+        for (Member member : changed == null ? Collections.<Member>emptyList() : changed) {
+            missing.remove(member.getId());
+            if (shardedMemberRepository == null) { // 샤드 저장소는 반영하면서 직접 발행한다
+                publisher.publishEvent(new MemberChangedEvent(MemberChangedEvent.Type.SAVED, member));
+            }
+        }
+        for (Map.Entry<Long, Pending> entry : batch.entrySet()) {
+            if (missing.contains(entry.getKey())) {
+                entry.getValue().ack.completeExceptionally(
+                        new IllegalArgumentException("존재하지 않는 회원입니다. id=" + entry.getKey()));
+            } else {
+                entry.getValue().ack.complete(null);
+            }
+        }
+        return ids.size() - missing.size();
+    }
+
+    private List<Member> changeShards(Map<Long, Pending> batch, long changedAt) {
+        Map<Long, MemberProfileChange> changes = new LinkedHashMap<>();
+        batch.forEach((id, pending) -> changes.put(id, pending.change));
+        return shardedMemberRepository.changeProfiles(changes, changedAt);
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            log.warn("write-behind flush failed", e);
+        }
+    }
+
+    /**
+     * 종료 시 남은 변경을 반영하고 끝낸다
+     */
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+        flushQuietly();
+    }
+
+    private static class Pending {
+
+        private final CompletableFuture<Void> ack = new CompletableFuture<>();
+        private MemberProfileChange change;
+
+        Pending(MemberProfileChange change) {
+            this.change = change;
+        }
+    }
+}
@@ -0,0 +1,36 @@
+-- 샤드 DB 의 member 테이블 (JPA 가 만드는 member 테이블과 컬럼이 같다)
+-- MySQL 과 H2 에서 모두 도는 문법만 쓴다 (인덱스와 id 블록/변경 버전 첫 행은 ShardedMemberRepository.initSchema 에서 없을 때만 만든다)
+-- 학번 앞 4자리는 입학년도와 같아야 등록되므로 같은 학번은 항상 같은 샤드에 들어간다 -> 샤드별 unique 가 곧 전체 unique
+create table if not exists member (
+    member_id         bigint       not null primary key,
+    stu_no            varchar(255),
+    enter_year        varchar(255),
+    name              varchar(255),
+    birth_md          varchar(255),
+    sust_cd           varchar(255),
+    mjr_cd            varchar(255),
+    shys_cd           varchar(255),
+    shtm_cd           varchar(255),
+    fin_schreg_div_cd varchar(255),
+    cptn_shtm_cnt     integer,
+    email             varchar(255),
+    gender            varchar(255),
+    city              varchar(255),
+    street            varchar(255),
+    zipcode           varchar(255),
+    changed_at        bigint,
+    change_version    bigint,
+    constraint uk_member_stu_no unique (stu_no)
+);
+
+-- id 블록 발급용 한 행 - 등록 배치마다 next_value 를 배치 건수만큼 올리고 올리기 전 구간을 id 로 쓴다 (hi/lo)
+create table if not exists member_id_block (
+    id         integer not null primary key,
+    next_value bigint  not null
+);
+
+-- 샤드의 회원 변경 버전 한 행 - 이 샤드에 쓰는 트랜잭션마다 1 올린다 (기본 DB 의 member_version 과 같은 역할)
+create table if not exists member_version (
+    id      integer not null primary key,
+    version bigint  not null
+);
@@ -0,0 +1,139 @@
+package restful.demo.api.cache;
+
+import org.junit.jupiter.api.Test;
+import restful.demo.api.entity.Member;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 스프링 컨테이너 없이 MemberCache 만 단위 테스트
+ * ticker 를 직접 움직여서 ttl 만료를 확인한다
+ */
+class MemberCacheTest {
+
+    private final AtomicLong now = new AtomicLong();
+
+    @Test
+    void readThrough() {
+        MemberCache cache = new MemberCache(10, Duration.ofMinutes(1), now::get);
+        AtomicInteger loads = new AtomicInteger();
+
+        cache.get(1L, id -> member(id, loads));
+        cache.get(1L, id -> member(id, loads));
+
+        assertThat(loads.get()).isEqualTo(1);
+        assertThat(cache.stats().getHits()).isEqualTo(1);
+        assertThat(cache.stats().getMisses()).isEqualTo(1);
+    }
+
+    @Test
+    void evictLeastRecentlyUsed() {
+        MemberCache cache = new MemberCache(2, Duration.ofMinutes(1), now::get);
+        AtomicInteger loads = new AtomicInteger();
+
+        cache.get(1L, id -> member(id, loads));
+        cache.get(2L, id -> member(id, loads));
+        cache.get(1L, id -> member(id, loads));
+        cache.get(3L, id -> member(id, loads)); // 2번이 가장 오래 사용되지 않음
+
+        assertThat(cache.getIfPresent(1L)).isNotNull();
+        assertThat(cache.getIfPresent(2L)).isNull();
+        assertThat(cache.stats().getEvictions()).isEqualTo(1);
+    }
+
+    @Test
+    void expireAfterTtl() {
+        MemberCache cache = new MemberCache(10, Duration.ofSeconds(1), now::get);
+        AtomicInteger loads = new AtomicInteger();
+
+        cache.get(1L, id -> member(id, loads));
+        now.addAndGet(Duration.ofSeconds(2).toNanos());
+        cache.get(1L, id -> member(id, loads));
+
+        assertThat(loads.get()).isEqualTo(2);
+    }
+
+    @Test
+    void invalidate() {
+        MemberCache cache = new MemberCache(10, Duration.ofMinutes(1), now::get);
+        AtomicInteger loads = new AtomicInteger();
+
+        cache.get(1L, id -> member(id, loads));
+        cache.invalidate(1L);
+
+        assertThat(cache.getIfPresent(1L)).isNull();
+        assertThat(cache.stats().getInvalidations()).isEqualTo(1);
+    }
+
+    @Test
+    void invalidateDuringLoadIsNotOverwritten() {
+        MemberCache cache = new MemberCache(10, Duration.ofMinutes(1), now::get);
+        AtomicInteger loads = new AtomicInteger();
+
+        // DB 에서 수정 전 값을 읽은 직후, put 전에 수정 커밋 -> 무효화가 들어온 상황
+        Member loaded = cache.get(1L, id -> {
+            Member stale = member(id, loads);
+            cache.invalidate(id);
+            return stale;
+        });
+
+        assertThat(loaded).isNotNull();
+        assertThat(cache.getIfPresent(1L)).isNull();
+        cache.get(1L, id -> member(id, loads));
+        assertThat(loads.get()).isEqualTo(2);
+        assertThat(cache.getIfPresent(1L)).isNotNull();
+    }
+
+    @Test
+    void invalidateDuringBatchLoadSkipsOnlyThatId() {
+        MemberCache cache = new MemberCache(10, Duration.ofMinutes(1), now::get);
+        AtomicInteger loads = new AtomicInteger();
+
+        Map<Long, Member> found = cache.getAll(List.of(1L, 2L), ids -> {
+            Map<Long, Member> loaded = ids.stream().collect(Collectors.toMap(id -> id, id -> member(id, loads)));
+            cache.invalidate(2L);
+            return loaded;
+        });
+
+        assertThat(found).containsOnlyKeys(1L, 2L);
+        assertThat(cache.getIfPresent(1L)).isNotNull();
+        assertThat(cache.getIfPresent(2L)).isNull();
+    }
+
+    @Test
+    void invalidateAllDuringLoad() {
+        MemberCache cache = new MemberCache(10, Duration.ofMinutes(1), now::get);
+        AtomicInteger loads = new AtomicInteger();
+
+        cache.get(1L, id -> {
+            Member stale = member(id, loads);
+            cache.invalidateAll();
+            return stale;
+        });
+
+        assertThat(cache.getIfPresent(1L)).isNull();
+    }
+
+    @Test
+    void invalidateBeforeLoadDoesNotBlockLaterLoads() {
+        MemberCache cache = new MemberCache(10, Duration.ofMinutes(1), now::get);
+        AtomicInteger loads = new AtomicInteger();
+
+        cache.invalidate(1L);
+        cache.get(1L, id -> member(id, loads));
+
+        assertThat(cache.getIfPresent(1L)).isNotNull();
+    }
+
+    private Member member(Long id, AtomicInteger loads) {
+        loads.incrementAndGet();
+        return Member.builder().id(id).stuNo("2021" + id).build();
+    }
+}
@@ -0,0 +1,137 @@
+package restful.demo.api.cache;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.request.ServletWebRequest;
+import restful.demo.api.entity.Member;
+import restful.demo.api.event.MemberChangedEvent;
+import restful.demo.api.repository.MemberVersionCounter;
+
+import java.util.concurrent.ScheduledExecutorService;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+/**
+ * 내장 H2 의 member_version 으로 버전이 커밋된 쓰기를 따라가는지 확인
+ * 백그라운드 다시 읽기는 mock 스케줄러로 막아두고 refresh 를 직접 부른다 (다른 인스턴스의 쓰기는 이벤트 없이 커밋만 함)
+ */
+class MemberTableVersionTest {
+
+    private final JdbcTemplate jdbcTemplate = new JdbcTemplate(new DriverManagerDataSource("jdbc:h2:mem:table-version;DB_CLOSE_DELAY=-1", "sa", ""));
+    private final TransactionTemplate transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(jdbcTemplate.getDataSource()));
+    private final MemberVersionCounter counter = new MemberVersionCounter(jdbcTemplate, null);
+    private final MemberTableVersion version = new MemberTableVersion(() -> Long.toString(counter.current(), 36), mock(ScheduledExecutorService.class));
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.execute("create table member_version (id integer primary key, version bigint)");
+        counter.init();
+        counter.init(); // 다시 실행해도 행이 하나
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("drop table member_version");
+    }
+
+    @Test
+    void counterMovesOncePerTransaction() {
+        Long first = transactionTemplate.execute(status -> counter.next() + counter.next() * 10);
+        Long second = transactionTemplate.execute(status -> counter.next());
+
+        assertThat(first).isEqualTo(11L); // 같은 트랜잭션에서는 같은 버전
+        assertThat(second).isEqualTo(2L);
+        assertThat(counter.current()).isEqualTo(2L);
+        assertThat(jdbcTemplate.queryForObject("select count(*) from member_version", Long.class)).isEqualTo(1L);
+    }
+
+    @Test
+    void followCommittedWritesOnRefresh() {
+        assertThat(version.current()).isNull(); // 읽기 전에는 모름
+        version.refresh();
+        String initial = version.current();
+
+        transactionTemplate.execute(status -> counter.next()); // 다른 인스턴스의 쓰기
+        assertThat(version.current()).isEqualTo(initial); // 다시 읽기 전까지는 이전 값
+        version.refresh();
+
+        assertThat(version.current()).isNotEqualTo(initial);
+    }
+
+    @Test
+    void localChangeStopsNotModifiedUntilRefreshed() {
+        version.refresh();
+        MockHttpServletResponse first = new MockHttpServletResponse();
+        assertThat(version.checkNotModified(new ServletWebRequest(new MockHttpServletRequest("GET", "/members"), first))).isFalse();
+        String etag = first.getHeader(HttpHeaders.ETAG);
+        assertThat(version.checkNotModified(conditional(etag))).isTrue();
+
+        transactionTemplate.execute(status -> counter.next());
+        version.onMemberChanged(new MemberChangedEvent(MemberChangedEvent.Type.SAVED, Member.builder().id(1L).build()));
+        assertThat(version.checkNotModified(conditional(etag))).isFalse(); // 다시 읽기 전이라 304 를 주지 않음
+
+        version.refresh();
+        assertThat(version.checkNotModified(conditional(etag))).isFalse();
+
+        MockHttpServletResponse refreshed = new MockHttpServletResponse();
+        version.checkNotModified(new ServletWebRequest(new MockHttpServletRequest("GET", "/members"), refreshed));
+        version.codesChanged(42);
+        assertThat(version.checkNotModified(conditional(refreshed.getHeader(HttpHeaders.ETAG)))).isFalse();
+    }
+
+    @Test
+    void etagFollowsNegotiatedFormat() {
+        version.refresh();
+        MockHttpServletResponse json = new MockHttpServletResponse();
+        version.checkNotModified(new ServletWebRequest(new MockHttpServletRequest("GET", "/members"), json));
+        MockHttpServletRequest smileRequest = new MockHttpServletRequest("GET", "/members");
+        smileRequest.addHeader(HttpHeaders.ACCEPT, "application/x-jackson-smile");
+        MockHttpServletResponse smile = new MockHttpServletResponse();
+        version.checkNotModified(new ServletWebRequest(smileRequest, smile));
+
+        assertThat(json.getHeaders(HttpHeaders.VARY)).containsExactly(HttpHeaders.ACCEPT);
+        assertThat(smile.getHeader(HttpHeaders.ETAG)).isNotEqualTo(json.getHeader(HttpHeaders.ETAG));
+
+        MockHttpServletRequest jsonRevalidation = new MockHttpServletRequest("GET", "/members");
+        jsonRevalidation.addHeader(HttpHeaders.ACCEPT, "application/cbor;q=0.5, application/json");
+        jsonRevalidation.addHeader(HttpHeaders.IF_NONE_MATCH, smile.getHeader(HttpHeaders.ETAG));
+        assertThat(version.checkNotModified(new ServletWebRequest(jsonRevalidation, new MockHttpServletResponse()))).isFalse();
+
+        assertThat(MemberTableVersion.representation("*/*")).isEqualTo(MemberTableVersion.representation(null));
+        assertThat(MemberTableVersion.representation("text/html, application/vnd.member.columnar+smile"))
+                .isNotEqualTo(MemberTableVersion.representation("application/vnd.member.columnar+json"));
+        assertThat(MemberTableVersion.representation("application/json;q=0.1, application/cbor"))
+                .isNotEqualTo(MemberTableVersion.representation("application/json"));
+    }
+
+    @Test
+    void discardVersionReadWhileChangeCommits() {
+        MemberChangedEvent event = new MemberChangedEvent(MemberChangedEvent.Type.SAVED, Member.builder().id(1L).build());
+        MemberTableVersion[] self = new MemberTableVersion[1];
+        self[0] = new MemberTableVersion(() -> {
+            String read = Long.toString(counter.current(), 36);
+            transactionTemplate.execute(status -> counter.next()); // 읽은 직후에 다른 쓰기가 커밋되고 이벤트가 옴
+            self[0].onMemberChanged(event);
+            return read;
+        }, mock(ScheduledExecutorService.class));
+
+        self[0].refresh();
+
+        assertThat(self[0].current()).isNull();
+    }
+
+    private ServletWebRequest conditional(String etag) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/members");
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, etag);
+        return new ServletWebRequest(request, new MockHttpServletResponse());
+    }
+}
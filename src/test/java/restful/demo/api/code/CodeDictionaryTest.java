@@ -0,0 +1,70 @@
+package restful.demo.api.code;
+
+import org.junit.jupiter.api.Test;
+import restful.demo.api.cache.MemberTableVersion;
+import restful.demo.api.entity.CodeGroup;
+import restful.demo.api.entity.CommonCode;
+import restful.demo.api.entity.Member;
+import restful.demo.api.repository.CommonCodeRepository;
+
+import java.time.Duration;
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * 레포지토리는 mock 으로 두고 reload 마다 돌려줄 코드 목록만 바꿔서 테스트
+ */
+class CodeDictionaryTest {
+
+    private final CommonCodeRepository repository = mock(CommonCodeRepository.class);
+    private final MemberTableVersion memberTableVersion = mock(MemberTableVersion.class);
+    private final CodeDictionary dictionary = new CodeDictionary(repository, memberTableVersion, Duration.ZERO);
+
+    @Test
+    void resolveNames() {
+        given(repository.findByUsedTrueOrderByCodeGroupAscSortOrderAscCodeAsc()).willReturn(Arrays.asList(
+                code(CodeGroup.SUST_CD, "SUSTCD001", "컴퓨터공학과"),
+                code(CodeGroup.SHYS_CD, "1", "1학년")));
+        dictionary.reload();
+
+        Member member = Member.builder().id(1L).sustCd("SUSTCD001").shysCd("1").mjrCd("MJRCD999").build();
+
+        assertThat(dictionary.name(CodeGroup.SUST_CD, "SUSTCD001")).isEqualTo("컴퓨터공학과");
+        assertThat(dictionary.namesOf(member))
+                .containsEntry("sustCd", "컴퓨터공학과")
+                .containsEntry("shysCd", "1학년")
+                .containsEntry("mjrCd", null) // 사전에 없는 코드
+                .containsEntry("finSchregDivCd", null);
+    }
+
+    @Test
+    void swapSnapshotOnlyWhenChanged() {
+        given(repository.findByUsedTrueOrderByCodeGroupAscSortOrderAscCodeAsc())
+                .willReturn(Arrays.asList(code(CodeGroup.SUST_CD, "SUSTCD001", "컴퓨터공학과")))
+                .willReturn(Arrays.asList(code(CodeGroup.SUST_CD, "SUSTCD001", "컴퓨터공학과")))
+                .willReturn(Arrays.asList(code(CodeGroup.SUST_CD, "SUSTCD001", "소프트웨어학과")));
+
+        CodeDictionary.Snapshot first = dictionary.reload();
+
+        assertThat(dictionary.reload()).isSameAs(first);
+        verify(memberTableVersion, times(1)).codesChanged(anyInt());
+
+        CodeDictionary.Snapshot changed = dictionary.reload();
+        assertThat(changed.getVersion()).isEqualTo(first.getVersion() + 1);
+        assertThat(first.getNames().get(CodeGroup.SUST_CD)).containsEntry("SUSTCD001", "컴퓨터공학과"); // 이전 스냅샷은 그대로
+        assertThat(dictionary.name(CodeGroup.SUST_CD, "SUSTCD001")).isEqualTo("소프트웨어학과");
+        verify(memberTableVersion).codesChanged(CodeDictionary.contentHash(first.getNames()));
+        verify(memberTableVersion).codesChanged(CodeDictionary.contentHash(changed.getNames()));
+        assertThat(CodeDictionary.contentHash(changed.getNames())).isNotEqualTo(CodeDictionary.contentHash(first.getNames()));
+    }
+
+    private CommonCode code(CodeGroup group, String code, String codeName) {
+        return CommonCode.builder().codeGroup(group).code(code).codeName(codeName).used(true).build();
+    }
+}
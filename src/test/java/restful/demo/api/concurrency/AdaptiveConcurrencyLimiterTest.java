@@ -0,0 +1,81 @@
+package restful.demo.api.concurrency;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AdaptiveConcurrencyLimiterTest {
+
+    private static final long FAST = Duration.ofMillis(10).toNanos();
+    private static final long SLOW = Duration.ofMillis(500).toNanos();
+
+    @Test
+    void rejectOverLimit() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(2, 1, 10, Duration.ofMillis(100), 0.5);
+
+        assertThat(limiter.tryAcquire()).isTrue();
+        assertThat(limiter.tryAcquire()).isTrue();
+        assertThat(limiter.tryAcquire()).isFalse();
+        assertThat(limiter.getRejected()).isEqualTo(1);
+    }
+
+    @Test
+    void decreaseWhenSlow() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(8, 1, 10, Duration.ofMillis(100), 0.5);
+
+        limiter.tryAcquire();
+        limiter.release(SLOW, true);
+
+        assertThat(limiter.getLimit()).isEqualTo(4);
+        assertThat(limiter.getInFlight()).isZero();
+    }
+
+    @Test
+    void increaseWhenFastButNotOverMax() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(2, 1, 3, Duration.ofMillis(100), 0.5);
+
+        for (int i = 0; i < 100; i++) {
+            limiter.tryAcquire();
+            limiter.release(FAST, true);
+        }
+
+        assertThat(limiter.getLimit()).isEqualTo(3);
+    }
+
+    @Test
+    void neverBelowMin() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(2, 1, 10, Duration.ofMillis(100), 0.5);
+
+        for (int i = 0; i < 10; i++) {
+            limiter.tryAcquire();
+            limiter.release(FAST, false);
+        }
+
+        assertThat(limiter.getLimit()).isEqualTo(1);
+    }
+
+    @Test
+    void burstOfSlowCompletionsDecreasesOnce() {
+        AtomicLong now = new AtomicLong(SLOW * 10);
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(8, 1, 10, Duration.ofMillis(100), 0.5, now::get);
+
+        for (int i = 0; i < 8; i++) {
+            limiter.tryAcquire();
+        }
+        for (int i = 0; i < 8; i++) { // 같은 시각에 시작한 8건이 모두 느리게 끝남
+            limiter.release(SLOW, true);
+            now.addAndGet(Duration.ofMillis(1).toNanos());
+        }
+
+        assertThat(limiter.getLimit()).isEqualTo(4);
+
+        now.addAndGet(SLOW * 2);
+        limiter.tryAcquire();
+        limiter.release(SLOW, true); // 줄인 뒤에 시작한 요청이 또 느리면 다시 줄인다
+
+        assertThat(limiter.getLimit()).isEqualTo(2);
+    }
+}
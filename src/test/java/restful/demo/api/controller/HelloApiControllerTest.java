@@ -4,8 +4,10 @@ import static org.springframework.restdocs.mockmvc.MockMvcRestDocumentation.docu
 import static org.springframework.restdocs.mockmvc.MockMvcRestDocumentation.documentationConfiguration;
 import static org.springframework.restdocs.payload.PayloadDocumentation.fieldWithPath;
 import static org.springframework.restdocs.payload.PayloadDocumentation.responseFields;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 import org.junit.jupiter.api.BeforeEach;
@@ -19,6 +21,7 @@ import org.springframework.restdocs.RestDocumentationContextProvider;
 import org.springframework.restdocs.RestDocumentationExtension;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import org.springframework.web.context.WebApplicationContext;
 import restful.demo.api.repository.MemberRepository;
@@ -82,7 +85,11 @@ public class HelloApiControllerTest {
 
     @Test
     public void sample() throws Exception {
-        this.mockMvc.perform(get("/"))
+        MvcResult result = this.mockMvc.perform(get("/"))
+                .andExpect(request().asyncStarted()) // DB 조회는 MemberQueryExecutor 에서 비동기로 실행
+                .andReturn();
+
+        this.mockMvc.perform(asyncDispatch(result))
                 .andExpect(status().isOk())
                 .andDo(print())
                 .andDo(document("sample",
@@ -103,7 +110,8 @@ public class HelloApiControllerTest {
                                 fieldWithPath("[].address").description("The Member's address city").optional(),
                                 fieldWithPath("[].address.city").description("The Member's address city").optional(),
                                 fieldWithPath("[].address.street").description("The Member's address city").optional(),
-                                fieldWithPath("[].address.zipcode").description("The Member's address city").optional())
+                                fieldWithPath("[].address.zipcode").description("The Member's address city").optional(),
+                                fieldWithPath("[].changedAt").description("The Member's last change time (epoch millis)").optional())
                 ));
     }
 }/////
\ No newline at end of file
@@ -0,0 +1,121 @@
+package restful.demo.api.controller;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+import restful.demo.api.codec.MemberColumnarHttpMessageConverter;
+
+/**
+ * /members 커서 페이징, /members/search 검색, /members/stream NDJSON 스트리밍 통합 테스트
+ * 조회는 MemberQueryExecutor, 스트리밍은 StreamingResponseBody 로 비동기 처리되기 때문에 asyncDispatch 로 한번 더 요청해서 결과를 받는다
+ */
+@SpringBootTest
+public class MemberApiControllerTest {
+
+    @Autowired
+    private WebApplicationContext context;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    public void setUp() {
+        this.mockMvc = MockMvcBuilders.webAppContextSetup(context).build();
+    }
+
+    @Test
+    public void members() throws Exception {
+        MvcResult result = this.mockMvc.perform(get("/members").param("lastId", "0").param("size", "10"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        this.mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andDo(print());
+    }
+
+    @Test
+    public void search() throws Exception {
+        MvcResult result = this.mockMvc.perform(get("/members/search")
+                        .param("enterYear", "2021")
+                        .param("sustCd", "SUSTCD001")
+                        .param("size", "10"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        this.mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content").isArray())
+                .andDo(print());
+    }
+
+    @Test
+    public void streamMembers() throws Exception {
+        MvcResult result = this.mockMvc.perform(get("/members/stream"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        this.mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON));
+    }
+
+    @Test
+    public void membersByIdsDefaultsToJson() throws Exception {
+        MvcResult result = this.mockMvc.perform(get("/members").param("ids", "1,2"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        this.mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$").isArray());
+    }
+
+    @Test
+    public void membersByIdsAnyAcceptIsJson() throws Exception {
+        MvcResult result = this.mockMvc.perform(get("/members").param("ids", "1,2").accept(MediaType.ALL))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        this.mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON));
+    }
+
+    @Test
+    public void membersByIdsColumnarOnlyWhenAccepted() throws Exception {
+        MvcResult result = this.mockMvc.perform(get("/members").param("ids", "1,2")
+                        .accept(MemberColumnarHttpMessageConverter.COLUMNAR_JSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        this.mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MemberColumnarHttpMessageConverter.COLUMNAR_JSON))
+                .andExpect(jsonPath("$.count").exists());
+    }
+
+    @Test
+    public void membersByIdsRejectsEmptyId() throws Exception {
+        MvcResult result = this.mockMvc.perform(get("/members").param("ids", "1,,2"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        this.mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isBadRequest());
+    }
+}
@@ -0,0 +1,71 @@
+package restful.demo.api.datasource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 내장 H2 두 개(primary, replica)로 readOnly 트랜잭션 라우팅 확인
+ */
+class ReplicaRoutingDataSourceTest {
+
+    private static final String PRIMARY_URL = "jdbc:h2:mem:routing-primary;DB_CLOSE_DELAY=-1";
+    private static final String REPLICA_URL = "jdbc:h2:mem:routing-replica;DB_CLOSE_DELAY=-1";
+
+    private ReplicaRoutingDataSource routing;
+
+    @AfterEach
+    void tearDown() throws Exception {
+        routing.destroy();
+    }
+
+    @Test
+    void readOnlyTransactionGoesToReplica() {
+        routing = routing(h2(REPLICA_URL));
+        DataSource dataSource = new LazyConnectionDataSourceProxy(routing);
+
+        assertThat(urlInTransaction(dataSource, true)).startsWith("jdbc:h2:mem:routing-replica");
+        assertThat(urlInTransaction(dataSource, false)).startsWith("jdbc:h2:mem:routing-primary");
+    }
+
+    @Test
+    void fallbackToPrimaryWhenReplicaIsDown() {
+        routing = routing(h2("jdbc:h2:tcp://localhost:1/~/routing-missing")); // 떠 있지 않은 서버라 접속 실패
+        DataSource dataSource = new LazyConnectionDataSourceProxy(routing);
+
+        routing.checkHealth();
+
+        assertThat(routing.getUnhealthyReplicas()).containsExactly("replica-0");
+        assertThat(urlInTransaction(dataSource, true)).startsWith("jdbc:h2:mem:routing-primary");
+    }
+
+    private ReplicaRoutingDataSource routing(DataSource replica) {
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        replicas.put("replica-0", replica);
+        ReplicaRoutingDataSource routingDataSource = new ReplicaRoutingDataSource(h2(PRIMARY_URL), replicas);
+        routingDataSource.afterPropertiesSet();
+        return routingDataSource;
+    }
+
+    private String urlInTransaction(DataSource dataSource, boolean readOnly) {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        transactionTemplate.setReadOnly(readOnly);
+        return transactionTemplate.execute(status -> new JdbcTemplate(dataSource)
+                .execute((ConnectionCallback<String>) connection -> connection.getMetaData().getURL()));
+    }
+
+    private DataSource h2(String url) {
+        return new DriverManagerDataSource(url, "sa", "");
+    }
+}
@@ -0,0 +1,94 @@
+package restful.demo.api.export;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * MockHttpServletRequest 에는 sendfile 속성이 없으므로 transferTo 경로로 전송된다
+ */
+class ExportFileSenderTest {
+
+    private static final String ETAG = "\"job-1\"";
+
+    @TempDir
+    Path directory;
+
+    private Path file;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        file = Files.write(directory.resolve("members.csv"), "0123456789".getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void wholeFile() throws Exception {
+        MockHttpServletResponse response = send(new MockHttpServletRequest());
+
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(response.getHeader("Accept-Ranges")).isEqualTo("bytes");
+        assertThat(response.getContentLengthLong()).isEqualTo(10);
+        assertThat(response.getContentAsString()).isEqualTo("0123456789");
+    }
+
+    @Test
+    void resumeFromOffset() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader("Range", "bytes=4-");
+        request.addHeader("If-Range", ETAG);
+
+        MockHttpServletResponse response = send(request);
+
+        assertThat(response.getStatus()).isEqualTo(206);
+        assertThat(response.getHeader("Content-Range")).isEqualTo("bytes 4-9/10");
+        assertThat(response.getContentAsString()).isEqualTo("456789");
+    }
+
+    @Test
+    void suffixRange() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader("Range", "bytes=-3");
+
+        MockHttpServletResponse response = send(request);
+
+        assertThat(response.getStatus()).isEqualTo(206);
+        assertThat(response.getContentAsString()).isEqualTo("789");
+    }
+
+    @Test
+    void ifRangeMismatchSendsWholeFile() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader("Range", "bytes=4-");
+        request.addHeader("If-Range", "\"other-job\"");
+
+        MockHttpServletResponse response = send(request);
+
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(response.getContentAsString()).isEqualTo("0123456789");
+    }
+
+    @Test
+    void unsatisfiableRange() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader("Range", "bytes=20-30");
+
+        MockHttpServletResponse response = send(request);
+
+        assertThat(response.getStatus()).isEqualTo(416);
+        assertThat(response.getHeader("Content-Range")).isEqualTo("bytes */10");
+    }
+
+    private MockHttpServletResponse send(MockHttpServletRequest request) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        ExportFileSender.send(file, ETAG, "members.csv", request, response);
+        return response;
+    }
+}
@@ -0,0 +1,70 @@
+package restful.demo.api.export;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import restful.demo.api.concurrency.OverloadedException;
+import restful.demo.api.service.MemberService;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * 작업 스레드 1개, 대기열 1개 - 첫 조회를 latch 로 막아두고 한도와 주기적인 정리를 확인
+ */
+class MemberExportServiceTest {
+
+    @TempDir
+    Path directory;
+
+    private final CountDownLatch release = new CountDownLatch(1);
+    private MemberExportService service;
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        service.shutdown();
+    }
+
+    @Test
+    void rejectWhenRunningAndQueuedJobsAreFullThenPurgeFinished() throws Exception {
+        MemberService memberService = mock(MemberService.class);
+        when(memberService.findPageAfter(anyLong(), anyInt())).thenAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            return Collections.emptyList();
+        });
+        service = new MemberExportService(memberService, new Jackson2ObjectMapperBuilder(), directory.toString(),
+                1000, Duration.ZERO, 1, 1, Duration.ofMillis(20));
+
+        ExportJob running = service.start(ExportFormat.CSV);
+        ExportJob queued = service.start(ExportFormat.CSV);
+
+        assertThatThrownBy(() -> service.start(ExportFormat.CSV)).isInstanceOf(OverloadedException.class);
+        assertThat(service.find(running.getId())).isNotNull(); // 끝나지 않은 작업은 지우지 않음
+
+        release.countDown();
+        waitUntil(() -> service.find(running.getId()) == null && service.find(queued.getId()) == null);
+        assertThat(running.getStatus()).isEqualTo(ExportJob.Status.DONE);
+        assertThat(running.getFile()).doesNotExist();
+    }
+
+    private void waitUntil(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!condition.getAsBoolean() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(condition.getAsBoolean()).isTrue();
+    }
+}
@@ -0,0 +1,108 @@
+package restful.demo.api.lookup;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import restful.demo.api.entity.Member;
+import restful.demo.api.event.MemberChangedEvent;
+import restful.demo.api.service.MemberService;
+
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.willAnswer;
+import static org.mockito.Mockito.mock;
+
+/**
+ * 색인은 MemberService 없이(preload = false) 직접 upsert 해서 테스트
+ */
+class MemberLookupIndexTest {
+
+    private final MemberLookupIndex index = new MemberLookupIndex(null, false, false);
+
+    @BeforeEach
+    void setUp() {
+        index.upsert(member(1L, "20210000001", "김민서", "minseo@naver.com"));
+        index.upsert(member(2L, "20210000002", "김민준", "minjun@gmail.com"));
+        index.upsert(member(3L, "20200000003", "이김민", "kimmin@daum.net"));
+        index.upsert(member(4L, "20190000004", "박서연", "seoyeon@naver.com"));
+    }
+
+    @Test
+    void namePrefixRanksBeforeContains() {
+        assertThat(index.lookup("김민", 10)).extracting("id").containsExactly(1L, 2L, 3L);
+        assertThat(index.lookup("김민서", 10)).extracting("id", "matchedField").containsExactly(tuple(1L, "name"));
+    }
+
+    @Test
+    void initialsAndTypingSyllable() {
+        assertThat(index.lookup("ㄱㅁㅅ", 10)).extracting("id").containsExactly(1L);
+        assertThat(index.lookup("김미", 10)).extracting("id").containsExactly(1L, 2L, 3L); // 민 을 입력하는 중
+    }
+
+    @Test
+    void stuNoAndEmail() {
+        assertThat(index.lookup("2021", 10)).extracting("id").containsExactly(1L, 2L);
+        assertThat(index.lookup("NAVER", 10)).extracting("id").containsExactlyInAnyOrder(1L, 4L);
+    }
+
+    @Test
+    void fuzzyWhenNothingMatches() {
+        assertThat(index.lookup("박서윤", 10)).extracting("id", "matchedField").containsExactly(tuple(4L, "fuzzy"));
+    }
+
+    @Test
+    void limit() {
+        assertThat(index.lookup("김", 2)).hasSize(2);
+        assertThatThrownBy(() -> index.lookup("김", MemberLookupIndex.MAX_LIMIT + 1))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> index.lookup(" ", 10))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void updateAndRemove() {
+        assertThat(index.lookup("최", 10)).isEmpty(); // 1글자 검색 결과 캐시
+
+        index.upsert(member(1L, "20210000001", "최민서", "minseo@naver.com"));
+        index.remove(2L);
+
+        assertThat(index.lookup("김민", 10)).extracting("id").containsExactly(3L);
+        assertThat(index.lookup("최민", 10)).extracting("id").containsExactly(1L);
+        assertThat(index.lookup("최", 10)).extracting("id").containsExactly(1L);
+        assertThat(index.size()).isEqualTo(3);
+    }
+
+    @Test
+    void deleteDuringLoadIsNotRevivedByStream() {
+        MemberService memberService = mock(MemberService.class);
+        MemberLookupIndex[] loaded = new MemberLookupIndex[1];
+        willAnswer(invocation -> {
+            Consumer<Member> consumer = invocation.getArgument(0);
+            // 스트림이 읽기 전에 커밋된 삭제/수정 - 스트림은 이전 행을 읽는다
+            loaded[0].onMemberChanged(new MemberChangedEvent(MemberChangedEvent.Type.DELETED, member(1L, "20210000001", "김민서", null)));
+            loaded[0].onMemberChanged(new MemberChangedEvent(MemberChangedEvent.Type.SAVED, member(2L, "20210000002", "최민준", null)));
+            consumer.accept(member(1L, "20210000001", "김민서", null));
+            consumer.accept(member(2L, "20210000002", "김민준", null));
+            return null;
+        }).given(memberService).streamAll(any());
+        loaded[0] = new MemberLookupIndex(memberService, true, false);
+
+        loaded[0].load();
+
+        assertThat(loaded[0].lookup("김민서", 10)).extracting("id").doesNotContain(1L);
+        assertThat(loaded[0].lookup("최민준", 10)).extracting("id").containsExactly(2L);
+        assertThat(loaded[0].size()).isEqualTo(1);
+    }
+
+    private Member member(Long id, String stuNo, String name, String email) {
+        return Member.builder()
+                .id(id)
+                .stuNo(stuNo)
+                .name(name)
+                .email(email)
+                .build();
+    }
+}
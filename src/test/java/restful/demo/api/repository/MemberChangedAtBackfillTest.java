@@ -0,0 +1,65 @@
+package restful.demo.api.repository;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 버전이 NULL 인 기존 회원/tombstone 이 채운 뒤에는 처음 동기화(version=-1, lastId=0) 조건에 걸리는지 내장 H2 로 확인
+ */
+class MemberChangedAtBackfillTest {
+
+    // MemberRepository.findChangedAfter 와 같은 조건
+    private static final String CHANGED_AFTER = "select member_id from member"
+            + " where change_version > ? or (change_version = ? and member_id > ?) order by change_version, member_id";
+
+    private final JdbcTemplate jdbcTemplate = new JdbcTemplate(new DriverManagerDataSource("jdbc:h2:mem:changed-at;DB_CLOSE_DELAY=-1", "sa", ""));
+    private final MemberChangedAtBackfill backfill = new MemberChangedAtBackfill(jdbcTemplate, null);
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.execute("create table member (member_id bigint primary key, changed_at bigint, change_version bigint)");
+        jdbcTemplate.execute("create table member_tombstone (member_id bigint primary key, version bigint)");
+        jdbcTemplate.update("insert into member values (1, null, null), (2, 1000, null), (3, 5000, 7)");
+        jdbcTemplate.update("insert into member_tombstone values (4, null)");
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("drop table member");
+        jdbcTemplate.execute("drop table member_tombstone");
+    }
+
+    @Test
+    void nullVersionRowsJoinInitialSync() {
+        assertThat(initialSync()).containsExactly(3L); // 채우기 전에는 NULL 행이 빠진다
+
+        backfill.backfill();
+
+        assertThat(initialSync()).containsExactly(1L, 2L, 3L);
+        assertThat(jdbcTemplate.queryForObject("select changed_at from member where member_id = 1", Long.class)).isZero();
+        assertThat(jdbcTemplate.queryForObject("select change_version from member where member_id = 3", Long.class)).isEqualTo(7L);
+        assertThat(jdbcTemplate.queryForList("select member_id from member_tombstone where version > -1", Long.class)).containsExactly(4L);
+    }
+
+    @Test
+    void backfillInBatches() {
+        jdbcTemplate.update("delete from member");
+        jdbcTemplate.update("insert into member select x, null, null from system_range(1, ?)", MemberChangedAtBackfill.BATCH_SIZE + 5);
+
+        backfill.backfill();
+
+        assertThat(jdbcTemplate.queryForObject("select count(*) from member where changed_at is null or change_version is null", Long.class))
+                .isZero();
+    }
+
+    private List<Long> initialSync() {
+        return jdbcTemplate.queryForList(CHANGED_AFTER, Long.class, -1L, -1L, 0L);
+    }
+}
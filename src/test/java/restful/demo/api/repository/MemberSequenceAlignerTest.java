@@ -0,0 +1,57 @@
+package restful.demo.api.repository;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * MySQL 처럼 member_seq 를 테이블로 흉내낸 상태를 내장 H2 로 만들어서 확인
+ */
+class MemberSequenceAlignerTest {
+
+    private final JdbcTemplate jdbcTemplate = new JdbcTemplate(new DriverManagerDataSource("jdbc:h2:mem:member-seq;DB_CLOSE_DELAY=-1", "sa", ""));
+    private final MemberSequenceAligner aligner = new MemberSequenceAligner(jdbcTemplate, null);
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("drop table if exists member");
+        jdbcTemplate.execute("drop table if exists member_seq");
+    }
+
+    @Test
+    void raiseNextValAboveExistingIds() {
+        jdbcTemplate.execute("create table member (member_id bigint primary key)");
+        jdbcTemplate.execute("create table member_seq (next_val bigint)");
+        jdbcTemplate.update("insert into member_seq values (1)"); // ddl-auto 가 새로 만든 상태
+        jdbcTemplate.update("insert into member values (1), (2), (250)"); // IDENTITY 시절 행
+
+        aligner.align();
+        aligner.align();
+
+        assertThat(jdbcTemplate.queryForObject("select next_val from member_seq", Long.class)).isEqualTo(351L);
+    }
+
+    @Test
+    void keepNextValAlreadyAhead() {
+        jdbcTemplate.execute("create table member (member_id bigint primary key)");
+        jdbcTemplate.execute("create table member_seq (next_val bigint)");
+        jdbcTemplate.update("insert into member_seq values (1000)");
+        jdbcTemplate.update("insert into member values (1)");
+
+        aligner.align();
+
+        assertThat(jdbcTemplate.queryForObject("select next_val from member_seq", Long.class)).isEqualTo(1000L);
+    }
+
+    @Test
+    void skipWithoutSequenceTable() {
+        jdbcTemplate.execute("create table member (member_id bigint primary key)");
+
+        aligner.align();
+
+        assertThat(jdbcTemplate.queryForObject("select count(*) from member", Long.class)).isZero();
+    }
+}
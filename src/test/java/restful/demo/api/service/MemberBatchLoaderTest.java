@@ -0,0 +1,73 @@
+package restful.demo.api.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import restful.demo.api.entity.Member;
+import restful.demo.api.repository.MemberRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+/**
+ * 레포지토리는 mock - window 가 끝난 배치가 dispatch 풀에서 각자 실행되는지 확인
+ */
+class MemberBatchLoaderTest {
+
+    private final MemberRepository memberRepository = mock(MemberRepository.class);
+    private final MemberBatchLoader loader = new MemberBatchLoader(memberRepository, mock(PlatformTransactionManager.class),
+            new SimpleMeterRegistry(), 1, 100, 4, 10);
+
+    @AfterEach
+    void tearDown() {
+        loader.shutdown();
+    }
+
+    @Test
+    void slowBatchDoesNotBlockNextBatch() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        given(memberRepository.findAllById(anyIterable())).willAnswer(invocation -> {
+            List<Member> found = new ArrayList<>();
+            for (Object id : (Iterable<?>) invocation.getArgument(0)) {
+                if (id.equals(1L)) {
+                    release.await(5, TimeUnit.SECONDS); // 1번이 든 배치만 느림
+                }
+                found.add(Member.builder().id((Long) id).build());
+            }
+            return found;
+        });
+
+        CompletableFuture<Member> slow = CompletableFuture.supplyAsync(() -> loader.load(1L));
+        Thread.sleep(50); // 첫 배치가 window 를 넘겨 dispatch 된 뒤
+        Member fast = CompletableFuture.supplyAsync(() -> loader.load(2L)).get(2, TimeUnit.SECONDS);
+
+        assertThat(fast.getId()).isEqualTo(2L);
+        assertThat(slow).isNotDone();
+        release.countDown();
+        assertThat(slow.get(2, TimeUnit.SECONDS).getId()).isEqualTo(1L);
+    }
+
+    @Test
+    void sameIdSharesOneLoad() {
+        given(memberRepository.findAllById(anyIterable())).willAnswer(invocation -> {
+            List<Member> found = new ArrayList<>();
+            invocation.<Iterable<Long>>getArgument(0).forEach(id -> found.add(Member.builder().id(id).build()));
+            return found;
+        });
+
+        CompletableFuture<Member> first = loader.loadAsync(3L);
+        CompletableFuture<Member> second = loader.loadAsync(3L);
+
+        assertThat(second).isSameAs(first);
+        assertThat(first.join().getId()).isEqualTo(3L);
+    }
+}
@@ -0,0 +1,230 @@
+package restful.demo.api.shard;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import restful.demo.api.dto.MemberImportRow;
+import restful.demo.api.dto.MemberProfileChange;
+import restful.demo.api.dto.MemberSearchCondition;
+import restful.demo.api.entity.Member;
+import restful.demo.api.event.MemberChangedEvent;
+import restful.demo.api.sync.SyncToken;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.entry;
+
+/**
+ * 내장 H2 세 개를 샤드로 사용 (~2019 / 2020 / 2021~)
+ */
+class ShardedMemberRepositoryTest {
+
+    private final List<Object> events = new CopyOnWriteArrayList<>();
+    private ShardedMemberRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        repository = new ShardedMemberRepository(Arrays.asList(
+                new MemberShard(0, null, 2019, h2("shard-test-0")),
+                new MemberShard(1, 2020, 2020, h2("shard-test-1")),
+                new MemberShard(2, 2021, null, h2("shard-test-2"))), Duration.ofSeconds(5), events::add);
+        repository.initSchema();
+        repository.initSchema(); // 다시 실행해도 인덱스/id 블록이 중복되지 않음
+    }
+
+    @AfterEach
+    void tearDown() {
+        repository.getShards().forEach(shard -> shard.getJdbcTemplate().execute("drop all objects"));
+        repository.destroy();
+    }
+
+    @Test
+    void insertRoutesByEnterYear() {
+        List<Member> members = repository.insertAll(Arrays.asList(
+                member("20180000001", "SUSTCD001"),
+                member("20200000001", "SUSTCD001"),
+                member("20210000001", "SUSTCD002"),
+                member("20220000001", "SUSTCD001")));
+
+        assertThat(repository.countByShard()).containsExactly(
+                entry("shard-0", 1L), entry("shard-1", 1L), entry("shard-2", 2L));
+        assertThat(members).extracting(member -> member.getId() % ShardedMemberRepository.SHARD_ID_STRIDE)
+                .containsExactly(0L, 1L, 2L, 2L);
+        assertThat(events).hasSize(4);
+        assertThatThrownBy(() -> repository.insert(member("abcd0000001", "SUSTCD001")))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void idBlockIsTakenOncePerBatch() {
+        List<Member> first = repository.insertAll(Arrays.asList(member("20210000001", "SUSTCD001"), member("20220000002", "SUSTCD001")));
+        List<Member> second = repository.insertAll(Collections.singletonList(member("20230000003", "SUSTCD001")));
+
+        assertThat(first).extracting(Member::getId).containsExactly(102L, 202L);
+        assertThat(second.get(0).getId()).isEqualTo(302L);
+        assertThat(repository.getShards().get(2).getJdbcTemplate()
+                .queryForObject("select next_value from member_id_block where id = 1", Long.class)).isEqualTo(4L);
+    }
+
+    @Test
+    void rejectStuNoThatDoesNotStartWithEnterYear() {
+        Member mismatched = Member.builder().stuNo("20210000001").enterYear("2019").name("학생01").build();
+
+        assertThatThrownBy(() -> repository.insert(mismatched)).isInstanceOf(IllegalArgumentException.class);
+        assertThat(repository.countByShard().values()).containsOnly(0L);
+    }
+
+    @Test
+    void pointLookupByIdAndStuNo() {
+        Member saved = repository.insert(member("20200000007", "SUSTCD003"));
+        Member other = repository.insert(member("20220000008", "SUSTCD003"));
+
+        assertThat(repository.findById(saved.getId()).getStuNo()).isEqualTo("20200000007");
+        assertThat(repository.findByStuNo("20200000007").getId()).isEqualTo(saved.getId());
+        assertThat(repository.findByStuNo("20210000007")).isNull();
+        assertThat(repository.findById(saved.getId() + 1)).isNull(); // 다른 샤드 번호
+        assertThat(repository.findAllById(Arrays.asList(saved.getId(), other.getId(), saved.getId() + 1)))
+                .extracting(Member::getStuNo).containsExactlyInAnyOrder("20200000007", "20220000008");
+    }
+
+    @Test
+    void pageAfterMergesShardsInIdOrder() {
+        List<Member> members = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            members.add(member((2018 + i % 5) + String.format("%07d", i), "SUSTCD001"));
+        }
+        repository.insertAll(members);
+
+        List<Long> ids = new ArrayList<>();
+        long lastId = 0;
+        for (List<Member> page = repository.findPageAfter(lastId, 3); !page.isEmpty(); page = repository.findPageAfter(lastId, 3)) {
+            assertThat(page.size()).isLessThanOrEqualTo(3);
+            page.forEach(member -> ids.add(member.getId()));
+            lastId = page.get(page.size() - 1).getId();
+        }
+
+        assertThat(ids).hasSize(10).isSorted().doesNotHaveDuplicates();
+    }
+
+    @Test
+    void forEachWalksShardsOneAfterAnother() {
+        List<Member> members = new ArrayList<>();
+        for (int i = 0; i < 1100; i++) {
+            members.add(member((2018 + i % 5) + String.format("%07d", i), "SUSTCD001")); // 2021 샤드에 660건 (여러 페이지)
+        }
+        repository.insertAll(members);
+
+        List<Long> ids = new ArrayList<>();
+        repository.forEach(member -> ids.add(member.getId()));
+
+        assertThat(ids).hasSize(1100).doesNotHaveDuplicates();
+        assertThat(ids).extracting(id -> id % ShardedMemberRepository.SHARD_ID_STRIDE).isSorted(); // 샤드 순서대로
+    }
+
+    @Test
+    void searchFansOutAndPagesByStuNo() {
+        repository.insertAll(Arrays.asList(
+                member("20220000001", "SUSTCD001"),
+                member("20180000001", "SUSTCD001"),
+                member("20200000001", "SUSTCD002"),
+                member("20200000002", "SUSTCD001"),
+                member("20190000001", "SUSTCD001")));
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setSustCd("SUSTCD001");
+        Sort byStuNo = Sort.by("stuNo");
+
+        Page<Member> first = repository.search(condition, PageRequest.of(0, 2, byStuNo));
+        Page<Member> second = repository.search(condition, PageRequest.of(1, 2, byStuNo));
+        Page<Member> third = repository.search(condition, PageRequest.of(2, 2, byStuNo));
+
+        assertThat(first.getContent()).extracting("stuNo").containsExactly("20180000001", "20190000001");
+        assertThat(second.getContent()).extracting("stuNo").containsExactly("20200000002", "20220000001");
+        assertThat(third.getContent()).isEmpty();
+        assertThat(first.getTotalElements()).isEqualTo(4);
+        assertThat(repository.search(condition, PageRequest.of(0, 1, Sort.by(Sort.Direction.DESC, "stuNo"))).getContent())
+                .extracting("stuNo").containsExactly("20220000001");
+
+        condition.setEnterYear("2020"); // 2020 샤드만 조회
+        assertThat(repository.search(condition, PageRequest.of(0, 10, byStuNo)).getContent())
+                .extracting("stuNo").containsExactly("20200000002");
+        assertThatThrownBy(() -> repository.search(condition, PageRequest.of(0, 10, Sort.by("email"))))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void writesPublishChangedEvents() {
+        Member saved = repository.insert(member("20210000001", "SUSTCD001"));
+        events.clear();
+
+        Map<Long, MemberProfileChange> changes = Collections.singletonMap(saved.getId(),
+                new MemberProfileChange(saved.getId(), "부산광역시", null, null, null));
+        List<Member> changed = repository.changeProfiles(changes, saved.getChangedAt() + 1);
+        Member deleted = repository.delete(saved.getId());
+
+        assertThat(changed).extracting(member -> member.getAddress().getCity()).containsExactly("부산광역시");
+        assertThat(deleted.getId()).isEqualTo(saved.getId());
+        assertThat(repository.findById(saved.getId())).isNull();
+        assertThat(repository.delete(saved.getId())).isNull();
+        assertThat(events).extracting(event -> ((MemberChangedEvent) event).getType())
+                .containsExactly(MemberChangedEvent.Type.SAVED, MemberChangedEvent.Type.DELETED);
+    }
+
+    @Test
+    void versionFollowsShardChanges() {
+        String empty = repository.version();
+        Member saved = repository.insert(member("20200000001", "SUSTCD001"));
+        String inserted = repository.version();
+        repository.changeProfiles(Collections.singletonMap(saved.getId(), new MemberProfileChange(saved.getId(), null, null, null, "x@univ.ac.kr")),
+                saved.getChangedAt() + 1);
+
+        assertThat(inserted).isNotEqualTo(empty);
+        assertThat(repository.version()).isNotEqualTo(inserted);
+    }
+
+    @Test
+    void changedAfterFollowsEachShardVersion() {
+        Member first = repository.insert(member("20200000001", "SUSTCD001"));
+        repository.insertAll(Arrays.asList(member("20210000002", "SUSTCD001"), member("20220000003", "SUSTCD001")));
+        repository.changeProfiles(Collections.singletonMap(first.getId(), new MemberProfileChange(first.getId(), null, null, null, "x@univ.ac.kr")),
+                first.getChangedAt() + 1);
+
+        List<List<Member>> all = repository.findChangedAfter(SyncToken.initial(3).getCursors(), 10);
+        assertThat(all.get(0)).isEmpty();
+        assertThat(all.get(1)).extracting(Member::getEmail).containsExactly("x@univ.ac.kr");
+        assertThat(all.get(1).get(0).getChangeVersion()).isEqualTo(2L); // 2020 샤드의 두 번째 쓰기
+        assertThat(all.get(2)).extracting(Member::getStuNo).containsExactly("20210000002", "20220000003"); // 한 배치 = 버전 하나
+
+        Member last = all.get(2).get(0);
+        List<SyncToken.Cursor> after = Arrays.asList(new SyncToken.Cursor(0, 0),
+                new SyncToken.Cursor(2, first.getId()), new SyncToken.Cursor(last.getChangeVersion(), last.getId()));
+        List<List<Member>> next = repository.findChangedAfter(after, 10);
+        assertThat(next.get(1)).isEmpty();
+        assertThat(next.get(2)).extracting(Member::getStuNo).containsExactly("20220000003");
+    }
+
+    private Member member(String stuNo, String sustCd) {
+        MemberImportRow row = new MemberImportRow();
+        row.setStuNo(stuNo);
+        row.setEnterYear(stuNo.substring(0, 4));
+        row.setName("학생" + stuNo.substring(stuNo.length() - 2));
+        row.setSustCd(sustCd);
+        row.setCity("서울특별시");
+        return row.toEntity();
+    }
+
+    private DriverManagerDataSource h2(String name) {
+        return new DriverManagerDataSource("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1", "sa", "");
+    }
+}
@@ -0,0 +1,60 @@
+package restful.demo.api.startup;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.core.metrics.StartupStep;
+
+import java.time.Instant;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 실제 BufferingApplicationStartup 에 refresh / 빈 생성 단계를 기록해서 구간이 나뉘는지 확인
+ */
+class StartupTimelineReportTest {
+
+    private final BufferingApplicationStartup startup = new BufferingApplicationStartup(64);
+
+    @Test
+    void splitsPhasesAndRanksSlowestBeans() throws InterruptedException {
+        Instant jvmStart = Instant.now().minusMillis(600);
+
+        StartupStep refresh = startup.start(StartupTimelineReport.CONTEXT_REFRESH);
+        StartupStep postProcess = startup.start(StartupTimelineReport.BEAN_POST_PROCESS);
+        postProcess.end();
+        bean(StartupTimelineReport.ENTITY_MANAGER_FACTORY, 30);
+        bean("memberApiController", 5);
+        refresh.end();
+        Thread.sleep(10);
+
+        StartupTimelineReport report = StartupTimelineReport.of(startup.getBufferedTimeline(), jvmStart, Instant.now(),
+                Map.of("lazyInitialization", true));
+
+        assertThat(report.getPhases()).containsKeys("jvm", "environment", "context-refresh", "bean-definitions", "jpa", "ready");
+        assertThat(report.getPhases().get("jvm")).isGreaterThanOrEqualTo(500);
+        assertThat(report.getPhases().get("jpa")).isGreaterThanOrEqualTo(30);
+        assertThat(report.getPhases().get("context-refresh")).isGreaterThanOrEqualTo(report.getPhases().get("jpa"));
+        assertThat(report.getPhases().get("ready")).isGreaterThanOrEqualTo(10);
+        assertThat(report.getTotalMillis()).isGreaterThanOrEqualTo(report.getPhases().get("jvm"));
+        assertThat(report.getBeansInstantiated()).isEqualTo(2);
+        assertThat(report.getSlowestBeans()).extracting("name")
+                .containsExactly(StartupTimelineReport.ENTITY_MANAGER_FACTORY, "memberApiController");
+        assertThat(report.getSettings()).containsEntry("lazyInitialization", true);
+    }
+
+    @Test
+    void onlyJvmPhaseWithoutContextRefresh() {
+        StartupTimelineReport report = StartupTimelineReport.of(startup.getBufferedTimeline(),
+                Instant.now().minusMillis(100), Instant.now(), Map.of());
+
+        assertThat(report.getPhases()).containsOnlyKeys("jvm");
+        assertThat(report.getSlowestBeans()).isEmpty();
+    }
+
+    private void bean(String name, long millis) throws InterruptedException {
+        StartupStep step = startup.start(StartupTimelineReport.BEAN_INSTANTIATE).tag("beanName", name);
+        Thread.sleep(millis);
+        step.end();
+    }
+}
@@ -0,0 +1,149 @@
+package restful.demo.api.stats;
+
+import org.junit.jupiter.api.Test;
+import restful.demo.api.concurrency.OverloadedException;
+import restful.demo.api.entity.Gender;
+import restful.demo.api.entity.Member;
+import restful.demo.api.event.MemberChangedEvent;
+import restful.demo.api.service.MemberService;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.willAnswer;
+import static org.mockito.Mockito.mock;
+
+/**
+ * 스냅샷은 MemberService 없이(preload = false) 직접 upsert 해서 테스트
+ */
+class MemberStatsSnapshotTest {
+
+    private final MemberStatsSnapshot snapshot = new MemberStatsSnapshot(null, false, false);
+
+    @Test
+    void groupByCode() {
+        snapshot.upsert(member(1L, "SUSTCD001", Gender.MAN, 2));
+        snapshot.upsert(member(2L, "SUSTCD001", Gender.WOMAN, 4));
+        snapshot.upsert(member(3L, "SUSTCD002", Gender.WOMAN, null));
+
+        List<GroupStats> stats = snapshot.groupBy("sustCd");
+
+        assertThat(stats).extracting("key", "count", "avgCptnShtmCnt")
+                .containsExactlyInAnyOrder(
+                        tuple("SUSTCD001", 2L, 3.0),
+                        tuple("SUSTCD002", 1L, null));
+    }
+
+    @Test
+    void groupByGender() {
+        snapshot.upsert(member(1L, "SUSTCD001", Gender.MAN, 2));
+        snapshot.upsert(member(2L, "SUSTCD001", Gender.WOMAN, 4));
+
+        assertThat(snapshot.groupBy("gender")).extracting("key", "count")
+                .containsExactlyInAnyOrder(tuple("MAN", 1L), tuple("WOMAN", 1L));
+    }
+
+    @Test
+    void updateAndRemove() {
+        snapshot.upsert(member(1L, "SUSTCD001", Gender.MAN, 2));
+        snapshot.upsert(member(2L, "SUSTCD001", Gender.MAN, 2));
+        snapshot.upsert(member(1L, "SUSTCD002", Gender.WOMAN, 6)); // 1번 학과/성별 변경
+        snapshot.remove(2L);
+
+        assertThat(snapshot.size()).isEqualTo(1);
+        assertThat(snapshot.groupBy("sustCd")).extracting("key", "count", "avgCptnShtmCnt")
+                .containsExactly(tuple("SUSTCD002", 1L, 6.0));
+        assertThat(snapshot.groupBy("gender")).extracting("key", "count")
+                .containsExactly(tuple("WOMAN", 1L));
+    }
+
+    @Test
+    void compactDeadRowsUnderChurn() {
+        for (long id = 1; id <= 100_000; id++) {
+            snapshot.upsert(member(id, "SUSTCD" + (id % 3), id % 2 == 0 ? Gender.MAN : Gender.WOMAN, (int) (id % 8)));
+            if (id > 1000) {
+                snapshot.remove(id - 1000); // 항상 1000 명만 남는 교체
+            }
+        }
+
+        assertThat(snapshot.size()).isEqualTo(1000);
+        assertThat(snapshot.capacity()).isLessThanOrEqualTo(8192);
+        assertThat(snapshot.groupBy("sustCd")).extracting("key", "count")
+                .containsExactlyInAnyOrder(tuple("SUSTCD0", 333L), tuple("SUSTCD1", 334L), tuple("SUSTCD2", 333L));
+        assertThat(snapshot.groupBy("gender")).extracting("key", "count")
+                .containsExactlyInAnyOrder(tuple("MAN", 500L), tuple("WOMAN", 500L));
+
+        snapshot.upsert(member(100_000L, "SUSTCD9", Gender.MAN, 1)); // 압축 후에도 id -> 행 매핑 유지
+        assertThat(snapshot.size()).isEqualTo(1000);
+        assertThat(snapshot.groupBy("sustCd")).extracting("key").contains("SUSTCD9");
+    }
+
+    @Test
+    void asyncPreloadDoesNotBlockAndRejectsUntilLoaded() throws Exception {
+        MemberService memberService = mock(MemberService.class);
+        CountDownLatch release = new CountDownLatch(1);
+        willAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            invocation.<Consumer<Member>>getArgument(0).accept(member(1L, "SUSTCD001", Gender.MAN, 2));
+            return null;
+        }).given(memberService).streamAll(any());
+        MemberStatsSnapshot async = new MemberStatsSnapshot(memberService, true, true);
+
+        async.load(); // 적재를 기다리지 않고 바로 돌아온다
+        assertThatThrownBy(() -> async.groupBy("sustCd")).isInstanceOf(OverloadedException.class);
+
+        release.countDown();
+        List<GroupStats> stats = null;
+        long deadline = System.currentTimeMillis() + 5000;
+        while (stats == null && System.currentTimeMillis() < deadline) {
+            try {
+                stats = async.groupBy("sustCd");
+            } catch (OverloadedException e) {
+                Thread.sleep(10); // 아직 적재 중
+            }
+        }
+        assertThat(stats).extracting("key", "count").containsExactly(tuple("SUSTCD001", 1L));
+    }
+
+    @Test
+    void changesDuringLoadAreAppliedAfterStream() {
+        MemberService memberService = mock(MemberService.class);
+        MemberStatsSnapshot[] loaded = new MemberStatsSnapshot[1];
+        willAnswer(invocation -> {
+            Consumer<Member> consumer = invocation.getArgument(0);
+            // 스트림이 1, 2번에 닿기 전에 커밋된 변경 - 스트림은 그보다 이전 값을 읽는다
+            loaded[0].onMemberChanged(new MemberChangedEvent(MemberChangedEvent.Type.DELETED, member(1L, "SUSTCD001", Gender.MAN, 2)));
+            loaded[0].onMemberChanged(new MemberChangedEvent(MemberChangedEvent.Type.SAVED, member(2L, "SUSTCD002", Gender.MAN, 4)));
+            consumer.accept(member(1L, "SUSTCD001", Gender.MAN, 2));
+            consumer.accept(member(2L, "SUSTCD001", Gender.MAN, 4));
+            return null;
+        }).given(memberService).streamAll(any());
+        loaded[0] = new MemberStatsSnapshot(memberService, true, false);
+
+        loaded[0].load();
+
+        assertThat(loaded[0].size()).isEqualTo(1);
+        assertThat(loaded[0].groupBy("sustCd")).extracting("key", "count").containsExactly(tuple("SUSTCD002", 1L));
+
+        loaded[0].onMemberChanged(new MemberChangedEvent(MemberChangedEvent.Type.DELETED, member(2L, "SUSTCD002", Gender.MAN, 4)));
+        assertThat(loaded[0].size()).isZero(); // 적재 후에는 바로 적용
+    }
+
+    private Member member(Long id, String sustCd, Gender gender, Integer cptnShtmCnt) {
+        return Member.builder()
+                .id(id)
+                .sustCd(sustCd)
+                .mjrCd("MJRCD001")
+                .shysCd("1")
+                .finSchregDivCd("FinSchregDivCd001")
+                .gender(gender)
+                .cptnShtmCnt(cptnShtmCnt)
+                .build();
+    }
+}
@@ -0,0 +1,115 @@
+package restful.demo.api.writebehind;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import restful.demo.api.dto.MemberProfileChange;
+import restful.demo.api.entity.Member;
+import restful.demo.api.event.MemberChangedEvent;
+import restful.demo.api.repository.MemberRepository;
+import restful.demo.api.repository.MemberVersionCounter;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+/**
+ * 내장 H2 의 member 테이블(필요한 컬럼만)에 batch update 되는지 확인 - 주기 flush 는 꺼두고(1h) 직접 flush 한다
+ */
+class MemberWriteBehindQueueTest {
+
+    private final JdbcTemplate jdbcTemplate = new JdbcTemplate(new DriverManagerDataSource("jdbc:h2:mem:write-behind;DB_CLOSE_DELAY=-1", "sa", ""));
+    private final MemberRepository memberRepository = mock(MemberRepository.class);
+    private final List<Object> events = new ArrayList<>();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private MemberWriteBehindQueue queue;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.execute("create table member (member_id bigint primary key, city varchar(255), street varchar(255), "
+                + "zipcode varchar(255), email varchar(255), changed_at bigint, change_version bigint)");
+        jdbcTemplate.update("insert into member values (1, '서울특별시', '불광로 1', '03000', 'a@univ.ac.kr', 0, 0)");
+        jdbcTemplate.update("insert into member values (2, '경기도', '중앙로 2', '10000', 'b@univ.ac.kr', 0, 0)");
+        jdbcTemplate.execute("create table member_version (id integer primary key, version bigint)");
+        MemberVersionCounter memberVersionCounter = new MemberVersionCounter(jdbcTemplate, null);
+        memberVersionCounter.init();
+        // 요청한 id 중 테이블에 있는 회원만 돌려준다 (없는 회원은 이 재조회 결과로 판단)
+        given(memberRepository.findAllById(anyIterable())).willAnswer(invocation -> {
+            List<Member> found = new ArrayList<>();
+            for (Long id : invocation.<Iterable<Long>>getArgument(0)) {
+                if (jdbcTemplate.queryForObject("select count(*) from member where member_id = ?", Long.class, id) > 0) {
+                    found.add(Member.builder().id(id).build());
+                }
+            }
+            return found;
+        });
+        queue = new MemberWriteBehindQueue(jdbcTemplate, new DataSourceTransactionManager(jdbcTemplate.getDataSource()),
+                memberRepository, memberVersionCounter, events::add, meterRegistry, 100, 1000, Duration.ofHours(1));
+    }
+
+    @AfterEach
+    void tearDown() {
+        queue.shutdown();
+        jdbcTemplate.execute("drop table member");
+        jdbcTemplate.execute("drop table member_version");
+    }
+
+    @Test
+    void coalesceAndFlushInOneBatch() throws Exception {
+        CompletableFuture<Void> first = queue.enqueue(1L, change(null, null, "03001", null));
+        CompletableFuture<Void> second = queue.enqueue(1L, change(null, null, "03002", "new@univ.ac.kr"));
+        queue.enqueue(2L, change("인천광역시", null, null, null));
+
+        assertThat(second).isSameAs(first);
+        assertThat(queue.depth()).isEqualTo(2);
+        assertThat(first).isNotDone();
+
+        assertThat(queue.flush()).isEqualTo(2);
+
+        assertThat(first).isCompleted();
+        Map<String, Object> row = jdbcTemplate.queryForMap("select * from member where member_id = 1");
+        assertThat(row).containsEntry("CITY", "서울특별시").containsEntry("ZIPCODE", "03002").containsEntry("EMAIL", "new@univ.ac.kr");
+        assertThat((Long) row.get("CHANGED_AT")).isPositive();
+        assertThat(row).containsEntry("CHANGE_VERSION", 1L);
+        assertThat(jdbcTemplate.queryForObject("select city from member where member_id = 2", String.class)).isEqualTo("인천광역시");
+        assertThat(events).hasSize(2).allMatch(event -> ((MemberChangedEvent) event).getType() == MemberChangedEvent.Type.SAVED);
+        assertThat(queue.depth()).isZero();
+        assertThat(queue.coalescingRatio()).isEqualTo(1.0 / 3);
+        assertThat(meterRegistry.get("member.write-behind.flush").timer().count()).isEqualTo(1);
+        assertThat(jdbcTemplate.queryForObject("select version from member_version", Long.class)).isEqualTo(1L); // flush 한 번에 버전 하나
+    }
+
+    @Test
+    void missingMemberFailsItsAck() {
+        CompletableFuture<Void> missing = queue.enqueue(99L, change(null, null, "99999", null));
+        CompletableFuture<Void> existing = queue.enqueue(2L, change(null, null, "10001", null));
+
+        assertThat(queue.flush()).isEqualTo(1);
+
+        assertThat(existing).isCompleted();
+        assertThatThrownBy(missing::get).isInstanceOf(ExecutionException.class).hasCauseInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void rejectEmptyChange() {
+        assertThatThrownBy(() -> queue.enqueue(1L, change(null, null, null, null)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private MemberProfileChange change(String city, String street, String zipcode, String email) {
+        return new MemberProfileChange(null, city, street, zipcode, email);
+    }
+}